@@ -0,0 +1,104 @@
+package org.acme;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados e objetos de apoio compartilhados pelos benchmarks, montados sem banco e sem o contêiner.
+ */
+final class BenchmarkFixtures {
+
+    static final String BASE = "http://localhost:8080/";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Página de livros com 2 autores cada e uma editora com detalhes, como a busca devolve.
+     */
+    static List<Livro> livros(int tamanho) {
+        Editora editora = editora(1);
+        List<Livro> livros = new ArrayList<>(tamanho);
+        for (long i = 1; i <= tamanho; i++) {
+            Livro livro = new Livro("Livro " + i, String.format("978853590%04d", i), 1950, editora);
+            livro.id = i;
+            livro.version = 0L;
+            for (long a = 1; a <= 2; a++) {
+                Autor autor = new Autor("Autor " + i + "-" + a, "Brasileira");
+                autor.id = i * 10 + a;
+                autor.version = 0L;
+                livro.autores.add(autor);
+            }
+            livros.add(livro);
+        }
+        return livros;
+    }
+
+    static List<Autor> autores(int tamanho) {
+        List<Autor> autores = new ArrayList<>(tamanho);
+        for (long i = 1; i <= tamanho; i++) {
+            Autor autor = new Autor("Autor " + i, "Brasileira");
+            autor.id = i;
+            autor.version = 0L;
+            autores.add(autor);
+        }
+        return autores;
+    }
+
+    static List<Editora> editoras(int tamanho) {
+        List<Editora> editoras = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            editoras.add(editora(i));
+        }
+        return editoras;
+    }
+
+    private static Editora editora(long id) {
+        Editora editora = new Editora("Editora " + id, "Rua Bandeira Paulista, " + id + " - São Paulo");
+        editora.id = id;
+        editora.version = 0L;
+        editora.detalhes = new DetalhesEditora("(11) 3707-3500", "contato" + id + "@editora.com.br", editora);
+        editora.detalhes.id = id;
+        editora.detalhes.version = 0L;
+        return editora;
+    }
+
+    /**
+     * {@link UriInfo} mínimo para os métodos {@code from} das respostas de busca, que só leem
+     * a URI base, o caminho absoluto e a URI da requisição.
+     */
+    static UriInfo uriInfo(String requisicao) {
+        URI request = URI.create(requisicao);
+        URI base = request.resolve("/");
+        URI absolutePath = URI.create(request.getScheme() + "://" + request.getRawAuthority() + request.getRawPath());
+        return (UriInfo) Proxy.newProxyInstance(UriInfo.class.getClassLoader(), new Class<?>[]{UriInfo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getBaseUri" -> base;
+                    case "getAbsolutePath" -> absolutePath;
+                    case "getRequestUri" -> request;
+                    case "getRequestUriBuilder" -> UriBuilder.fromUri(request);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * ObjectMapper com as mesmas opções que o Quarkus aplica por padrão.
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package org.acme;
+
+import jakarta.ws.rs.core.UriBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a montagem de links antiga (cadeias de {@link UriBuilder}) com o {@link LinkRenderer},
+ * para uma página de livros com 2 autores e editora com detalhes. Os dois lados montam só os links
+ * (os mesmos do livro, dos autores, da editora e dos detalhes), sem o resto das representações.
+ * <p>
+ * Rode com {@code -Djmh.args="LinkRendering -prof gc"}: {@code gc.alloc.rate.norm} é a alocação por página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkRenderingBenchmark {
+
+    private static final String BASE = BenchmarkFixtures.BASE;
+
+    @Param({"10", "100"})
+    int tamanhoPagina;
+
+    List<Livro> pagina;
+
+    @Setup
+    public void preparar() {
+        pagina = BenchmarkFixtures.livros(tamanhoPagina);
+    }
+
+    /**
+     * Os links como os {@code fromEntity} os montam: um renderer por requisição, strings concatenadas
+     * e {@code Map.of} para autores, editora e detalhes.
+     */
+    @Benchmark
+    public int linkRenderer() {
+        LinkRenderer links = new LinkRenderer(BASE);
+        int total = 0;
+        for (Livro livro : pagina) {
+            for (Autor autor : livro.autores) {
+                String self = links.autor(autor.id);
+                total += Map.of("self", self, "all", links.autores(), "update", self, "delete", self,
+                        "livros_deste_autor", links.livrosDoAutor(autor.id)).size();
+            }
+
+            String detalhes = links.detalhesDaEditora(livro.editora.id);
+            String editora = links.editora(livro.editora.id);
+            total += Map.of("self", detalhes, "editora", editora, "update", detalhes, "delete", detalhes).size();
+            total += Map.of("self", editora, "all", links.editoras(), "update", editora, "delete", editora,
+                    "detalhes", detalhes).size();
+
+            LivroRepresentation.Links livroLinks = new LivroRepresentation.Links();
+            livroLinks.self = links.livro(livro.id);
+            livroLinks.all = links.livros();
+            livroLinks.update = livroLinks.self;
+            livroLinks.delete = livroLinks.self;
+            livroLinks.editora = editora;
+            livroLinks.autores = links.autoresDoLivro(livro.id);
+            total += livroLinks.self.length();
+        }
+        return total;
+    }
+
+    /**
+     * Reproduz a montagem de links anterior ao {@link LinkRenderer}: um {@code UriBuilder}
+     * por grupo de links, um {@code URI} por link e um {@code HashMap} por autor e editora.
+     */
+    @Benchmark
+    public int uriBuilder() {
+        int total = 0;
+        for (Livro livro : pagina) {
+            for (Autor autor : livro.autores) {
+                Map<String, String> links = new HashMap<>();
+                UriBuilder autores = UriBuilder.fromUri(BASE).path("autores");
+                links.put("self", autores.path(autor.id.toString()).build().toString());
+                links.put("all", autores.build().toString());
+                links.put("update", autores.path(autor.id.toString()).build().toString());
+                links.put("delete", autores.path(autor.id.toString()).build().toString());
+                links.put("livros_deste_autor", UriBuilder.fromUri(BASE).path("livros").path("search").queryParam("autorId", autor.id).build().toString());
+                total += links.size();
+            }
+
+            Map<String, String> detalhes = new HashMap<>();
+            UriBuilder detalhesUri = UriBuilder.fromUri(BASE).path("editoras").path(livro.editora.id.toString()).path("detalhes");
+            detalhes.put("self", detalhesUri.build().toString());
+            detalhes.put("editora", UriBuilder.fromUri(BASE).path("editoras").path(livro.editora.id.toString()).build().toString());
+            detalhes.put("update", detalhesUri.build().toString());
+            detalhes.put("delete", detalhesUri.build().toString());
+
+            Map<String, String> editora = new HashMap<>();
+            UriBuilder editoras = UriBuilder.fromUri(BASE).path("editoras");
+            editora.put("self", editoras.path(livro.editora.id.toString()).build().toString());
+            editora.put("all", editoras.build().toString());
+            editora.put("update", editoras.path(livro.editora.id.toString()).build().toString());
+            editora.put("delete", editoras.path(livro.editora.id.toString()).build().toString());
+            editora.put("detalhes", UriBuilder.fromUri(BASE).path("editoras").path(livro.editora.id.toString()).path("detalhes").build().toString());
+
+            UriBuilder livros = UriBuilder.fromUri(BASE).path("livros");
+            total += livros.path(livro.id.toString()).build().toString().length();
+            total += livros.build().toString().length();
+            total += livros.path(livro.id.toString()).build().toString().length();
+            total += livros.path(livro.id.toString()).build().toString().length();
+            total += UriBuilder.fromUri(BASE).path("editoras").path(livro.editora.id.toString()).build().toString().length();
+            total += UriBuilder.fromUri(BASE).path("livros").path(livro.id.toString()).path("autores").build().toString().length();
+            total += detalhes.size() + editora.size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,83 @@
+package org.acme;
+
+import jakarta.ws.rs.core.UriInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de converter uma página de entidades nas representações com links,
+ * incluindo a montagem da {@link SearchLivroResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepresentationMappingBenchmark {
+
+    @Param({"10", "100"})
+    int tamanhoPagina;
+
+    List<Livro> livros;
+    List<Autor> autores;
+    List<Editora> editoras;
+    UriInfo uriInfo;
+
+    @Setup
+    public void preparar() {
+        livros = BenchmarkFixtures.livros(tamanhoPagina);
+        autores = BenchmarkFixtures.autores(tamanhoPagina);
+        editoras = BenchmarkFixtures.editoras(tamanhoPagina);
+        uriInfo = BenchmarkFixtures.uriInfo(BenchmarkFixtures.BASE + "livros/search?q=livro&sort=titulo&direction=asc&page=2&size=" + tamanhoPagina);
+    }
+
+    @Benchmark
+    public List<LivroRepresentation> livros() {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        List<LivroRepresentation> representacoes = new ArrayList<>(livros.size());
+        for (Livro livro : livros) {
+            representacoes.add(LivroRepresentation.fromEntity(livro, links));
+        }
+        return representacoes;
+    }
+
+    @Benchmark
+    public List<AutorRepresentation> autores() {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        List<AutorRepresentation> representacoes = new ArrayList<>(autores.size());
+        for (Autor autor : autores) {
+            representacoes.add(AutorRepresentation.fromEntity(autor, links));
+        }
+        return representacoes;
+    }
+
+    @Benchmark
+    public List<EditoraRepresentation> editoras() {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        List<EditoraRepresentation> representacoes = new ArrayList<>(editoras.size());
+        for (Editora editora : editoras) {
+            representacoes.add(EditoraRepresentation.fromEntity(editora, links));
+        }
+        return representacoes;
+    }
+
+    @Benchmark
+    public SearchLivroResponse searchLivroResponse() {
+        return SearchLivroResponse.from(livros(), uriInfo, "livro", "titulo", "asc", 2, tamanhoPagina,
+                10L * tamanhoPagina, 10L);
+    }
+}
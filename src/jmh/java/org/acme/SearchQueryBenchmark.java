@@ -0,0 +1,171 @@
+package org.acme;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas HQL das buscas paginadas ({@code count}, página e relacionamentos) contra um H2
+ * em memória populado no setup.
+ * <p>
+ * Usa o Hibernate diretamente, sem o Quarkus: as consultas são as mesmas dos resources, exceto a de livros,
+ * que mede o filtro {@code like} que o índice invertido substituiu em produção.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchQueryBenchmark {
+
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int LOTE_CARGA = 500;
+
+    /**
+     * Título, ISBN, nome da editora ou nome de algum autor, com {@code :q} em minúsculas e envolto em {@code %}.
+     */
+    private static final String FILTRO_TEXTO = "lower(titulo) like :q or lower(isbn) like :q"
+            + " or editora.id in (select e.id from Editora e where lower(e.nome) like :q)"
+            + " or id in (select l.id from Livro l join l.autores a where lower(a.nome) like :q)";
+
+    @Param({"10000"})
+    int livros;
+
+    @Param({"livro 12", "autor 7"})
+    String q;
+
+    SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Livro.class)
+                .addAnnotatedClass(Autor.class)
+                .addAnnotatedClass(Editora.class)
+                .addAnnotatedClass(DetalhesEditora.class)
+                .setProperty("jakarta.persistence.jdbc.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty("jakarta.persistence.jdbc.user", "sa")
+                .setProperty("jakarta.persistence.jdbc.password", "")
+                .setProperty("jakarta.persistence.schema-generation.database.action", "drop-and-create")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(this::popular);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        sessionFactory.close();
+    }
+
+    private void popular(Session session) {
+        int totalEditoras = Math.max(1, livros / 100);
+        int totalAutores = Math.max(1, livros / 10);
+
+        List<Long> editoraIds = new ArrayList<>(totalEditoras);
+        for (int i = 1; i <= totalEditoras; i++) {
+            Editora editora = new Editora("Editora " + i, "Rua Bandeira Paulista, " + i + " - São Paulo");
+            editora.detalhes = new DetalhesEditora("(11) 3707-3500", "contato" + i + "@editora.com.br", editora);
+            session.persist(editora);
+            editoraIds.add(editora.id);
+        }
+        List<Long> autorIds = new ArrayList<>(totalAutores);
+        for (int i = 1; i <= totalAutores; i++) {
+            Autor autor = new Autor("Autor " + i, i % 2 == 0 ? "Brasileira" : "Portuguesa");
+            session.persist(autor);
+            autorIds.add(autor.id);
+        }
+        session.flush();
+        session.clear();
+
+        for (int i = 1; i <= livros; i++) {
+            Livro livro = new Livro("Livro " + i, String.format("978%010d", i), 1900 + i % 120,
+                    session.getReference(Editora.class, editoraIds.get(i % totalEditoras)));
+            livro.autores.add(session.getReference(Autor.class, autorIds.get(i % totalAutores)));
+            livro.autores.add(session.getReference(Autor.class, autorIds.get((i * 7) % totalAutores)));
+            session.persist(livro);
+            if (i % LOTE_CARGA == 0) {
+                session.flush();
+                session.clear();
+            }
+        }
+    }
+
+    /**
+     * Contagem, página ordenada por título e carga dos relacionamentos da página pelo grafo de representação.
+     */
+    @Benchmark
+    public List<Livro> livros() {
+        try (Session session = sessionFactory.openSession()) {
+            String padrao = padrao();
+            session.createSelectionQuery("select count(*) from Livro where " + FILTRO_TEXTO, Long.class)
+                    .setParameter("q", padrao)
+                    .getSingleResult();
+            List<Long> ids = session.createSelectionQuery("select id from Livro where " + FILTRO_TEXTO
+                            + " order by titulo, id", Long.class)
+                    .setParameter("q", padrao)
+                    .setFirstResult(TAMANHO_PAGINA)
+                    .setMaxResults(TAMANHO_PAGINA)
+                    .getResultList();
+            return session.createSelectionQuery("from Livro where id in :ids", Livro.class)
+                    .setParameter("ids", ids)
+                    .setHint("jakarta.persistence.fetchgraph", session.getEntityGraph(Livro.GRAFO_REPRESENTACAO))
+                    .getResultList();
+        }
+    }
+
+    @Benchmark
+    public List<Autor> autores() {
+        try (Session session = sessionFactory.openSession()) {
+            String filtro = " from Autor where lower(nome) like :q or lower(nacionalidade) like :q";
+            String padrao = padrao();
+            session.createSelectionQuery("select count(*)" + filtro, Long.class)
+                    .setParameter("q", padrao)
+                    .getSingleResult();
+            return session.createSelectionQuery(filtro + " order by nome, id", Autor.class)
+                    .setParameter("q", padrao)
+                    .setFirstResult(TAMANHO_PAGINA)
+                    .setMaxResults(TAMANHO_PAGINA)
+                    .getResultList();
+        }
+    }
+
+    @Benchmark
+    public List<Editora> editoras() {
+        try (Session session = sessionFactory.openSession()) {
+            String filtro = " from Editora where lower(nome) like :q or lower(endereco) like :q"
+                    + " or lower(detalhes.telefone) like :q or lower(detalhes.email) like :q";
+            String padrao = padrao();
+            session.createSelectionQuery("select count(*)" + filtro, Long.class)
+                    .setParameter("q", padrao)
+                    .getSingleResult();
+            return session.createSelectionQuery(filtro + " order by nome, id", Editora.class)
+                    .setParameter("q", padrao)
+                    .setMaxResults(TAMANHO_PAGINA)
+                    .getResultList();
+        }
+    }
+
+    private String padrao() {
+        return "%" + q.toLowerCase() + "%";
+    }
+}
@@ -0,0 +1,126 @@
+package org.acme;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import jakarta.ws.rs.core.UriInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização Jackson das respostas de busca, já montadas, para um array de bytes.
+ * <p>
+ * {@code serializador=reflexao} ignora as anotações e usa o serializador de beans do Jackson (como antes de
+ * {@link RepresentationSerializers}); {@code manual} usa os serializadores escritos à mão. Os métodos
+ * {@code ...Gzip} somam a compressão feita por {@link ResponseCompression}; os tamanhos de cada corpo,
+ * com e sem gzip, são impressos no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchSerializationBenchmark {
+
+    @Param({"10", "100"})
+    int tamanhoPagina;
+
+    @Param({"reflexao", "manual"})
+    String serializador;
+
+    ObjectWriter livrosWriter;
+    ObjectWriter autoresWriter;
+    ObjectWriter editorasWriter;
+
+    SearchLivroResponse livros;
+    SearchAutorResponse autores;
+    SearchEditoraResponse editoras;
+
+    @Setup
+    public void preparar() {
+        ObjectMapper mapper = BenchmarkFixtures.objectMapper();
+        if ("reflexao".equals(serializador)) {
+            mapper = mapper.copy().setAnnotationIntrospector(NopAnnotationIntrospector.instance);
+        }
+        livrosWriter = mapper.writerFor(SearchLivroResponse.class);
+        autoresWriter = mapper.writerFor(SearchAutorResponse.class);
+        editorasWriter = mapper.writerFor(SearchEditoraResponse.class);
+
+        String query = "?q=a&sort=id&direction=asc&page=2&size=" + tamanhoPagina;
+        long total = 10L * tamanhoPagina;
+
+        UriInfo livrosUri = BenchmarkFixtures.uriInfo(BenchmarkFixtures.BASE + "livros/search" + query);
+        LinkRenderer links = LinkRenderer.of(livrosUri);
+        livros = SearchLivroResponse.from(
+                BenchmarkFixtures.livros(tamanhoPagina).stream().map(livro -> LivroRepresentation.fromEntity(livro, links)).toList(),
+                livrosUri, "a", "id", "asc", 2, tamanhoPagina, total, 10L);
+
+        UriInfo autoresUri = BenchmarkFixtures.uriInfo(BenchmarkFixtures.BASE + "autores/search" + query);
+        autores = SearchAutorResponse.from(
+                BenchmarkFixtures.autores(tamanhoPagina).stream().map(autor -> AutorRepresentation.fromEntity(autor, links)).toList(),
+                autoresUri, "a", "id", "asc", 2, tamanhoPagina, total, 10L);
+
+        UriInfo editorasUri = BenchmarkFixtures.uriInfo(BenchmarkFixtures.BASE + "editoras/search" + query);
+        editoras = SearchEditoraResponse.from(
+                BenchmarkFixtures.editoras(tamanhoPagina).stream().map(editora -> EditoraRepresentation.fromEntity(editora, links)).toList(),
+                editorasUri, "a", "id", "asc", 2, tamanhoPagina, total, 10L);
+
+        try {
+            byte[] json = searchLivroResponse();
+            System.out.printf("%nSearchLivroResponse (%s, %d itens): %d bytes JSON, %d bytes gzip%n",
+                    serializador, tamanhoPagina, json.length, gzip(json).length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] searchLivroResponse() throws JsonProcessingException {
+        return livrosWriter.writeValueAsBytes(livros);
+    }
+
+    @Benchmark
+    public byte[] searchAutorResponse() throws JsonProcessingException {
+        return autoresWriter.writeValueAsBytes(autores);
+    }
+
+    @Benchmark
+    public byte[] searchEditoraResponse() throws JsonProcessingException {
+        return editorasWriter.writeValueAsBytes(editoras);
+    }
+
+    @Benchmark
+    public byte[] searchLivroResponseGzip() throws IOException {
+        return gzip(livrosWriter.writeValueAsBytes(livros));
+    }
+
+    @Benchmark
+    public byte[] searchAutorResponseGzip() throws IOException {
+        return gzip(autoresWriter.writeValueAsBytes(autores));
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(Math.max(512, json.length / 4));
+        try (GZIPOutputStream gzip = ResponseCompression.gzip(comprimido, 1)) {
+            gzip.write(json);
+        }
+        return comprimido.toByteArray();
+    }
+}
@@ -1,9 +1,12 @@
 package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -12,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@EntityListeners(CatalogChangeListener.class)
 @Schema(description = "Representa um autor de livros")
 public class Autor extends PanacheEntity {
 
@@ -29,6 +34,10 @@ public class Autor extends PanacheEntity {
     @Schema(hidden = true)
     public List<Livro> livros = new ArrayList<>();
 
+    @Version
+    @Schema(hidden = true)
+    public Long version;
+
     public Autor() {
     }
 
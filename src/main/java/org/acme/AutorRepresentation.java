@@ -1,14 +1,15 @@
 package org.acme;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.ws.rs.core.UriInfo;
-import jakarta.ws.rs.core.UriBuilder;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
-import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Schema(description = "Representação de um autor com links HATEOAS")
+@JsonSerialize(using = RepresentationSerializers.DeAutor.class)
 public class AutorRepresentation {
 
     @Schema(readOnly = true)
@@ -21,13 +22,22 @@ public class AutorRepresentation {
     public String nacionalidade;
 
     @Schema(readOnly = true)
-    public Map<String, String> _links = new HashMap<>();
+    public Map<String, String> _links = Map.of();
+
+    static final Set<String> COLUNAS = Set.of("id", "nome", "nacionalidade");
 
     public void addLink(String rel, String href) {
+        if (!(this._links instanceof HashMap)) {
+            this._links = new HashMap<>(this._links);
+        }
         this._links.put(rel, href);
     }
 
     public static AutorRepresentation fromEntity(Autor autor, UriInfo uriInfo) {
+        return fromEntity(autor, LinkRenderer.of(uriInfo));
+    }
+
+    public static AutorRepresentation fromEntity(Autor autor, LinkRenderer links) {
         if (autor == null) {
             return null;
         }
@@ -36,14 +46,34 @@ public class AutorRepresentation {
         rep.nome = autor.nome;
         rep.nacionalidade = autor.nacionalidade;
 
-        UriBuilder baseUri = uriInfo.getBaseUriBuilder().path(AutorResource.class);
-        rep.addLink("self", baseUri.path(autor.id.toString()).build().toString());
-        rep.addLink("all", baseUri.build().toString());
-        rep.addLink("update", baseUri.path(autor.id.toString()).build().toString());
-        rep.addLink("delete", baseUri.path(autor.id.toString()).build().toString());
+        rep._links = links(autor.id, links);
 
-        rep.addLink("livros_deste_autor", uriInfo.getBaseUriBuilder().path(LivroResource.class).path("search").queryParam("autorId", autor.id).build().toString());
+        return rep;
+    }
 
+    /**
+     * Representação recortada nos campos de {@code fields}, montada a partir de uma linha da projeção.
+     */
+    public static Map<String, Object> fromProjecao(SparseFieldset campos, SparseFieldset.Projecao projecao, Object[] linha,
+                                                   LinkRenderer links) {
+        Map<String, Object> rep = campos.linha(projecao.colunas(), linha);
+        if (campos.contem(SparseFieldset.LINKS)) {
+            rep.put(SparseFieldset.LINKS, links((Long) projecao.valor(linha, "id"), links));
+        }
         return rep;
     }
-}
\ No newline at end of file
+
+    static SparseFieldset campos(String fields) {
+        return SparseFieldset.parse(fields, COLUNAS, Set.of());
+    }
+
+    private static Map<String, String> links(Long id, LinkRenderer links) {
+        String self = links.autor(id);
+        return Map.of(
+                "self", self,
+                "all", links.autores(),
+                "update", self,
+                "delete", self,
+                "livros_deste_autor", links.livrosDoAutor(id));
+    }
+}
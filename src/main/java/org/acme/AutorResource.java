@@ -2,11 +2,16 @@ package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -21,29 +26,46 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.resteasy.reactive.RestQuery;
 
 import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Path("/autores")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 @Tag(name = "Autores", description = "Operações relacionadas a autores")
 public class AutorResource {
 
     @Context
     UriInfo uriInfo;
 
+    @Inject
+    SearchCountCache countCache;
+
+    @Inject
+    SearchResponseCache searchCache;
+
     private AutorRepresentation toRepresentation(Autor autor) {
-        return AutorRepresentation.fromEntity(autor, uriInfo);
+        return AutorRepresentation.fromEntity(autor, LinkRenderer.of(uriInfo));
     }
 
     private List<AutorRepresentation> toRepresentationList(List<Autor> autores) {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
         return autores.stream()
-                .map(this::toRepresentation)
+                .map(autor -> AutorRepresentation.fromEntity(autor, links))
                 .collect(Collectors.toList());
     }
 
+    private List<Map<String, Object>> toProjectionList(SparseFieldset campos, SparseFieldset.Projecao projecao) {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        return projecao.linhas().stream()
+                .map(linha -> AutorRepresentation.fromProjecao(campos, projecao, linha, links))
+                .toList();
+    }
+
     private Autor toEntity(AutorRepresentation rep) {
         Autor autor = new Autor();
         autor.nome = rep.nome;
@@ -89,15 +111,25 @@ public class AutorResource {
             @APIResponse(responseCode = "200", description = "Autor encontrado com sucesso",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = AutorRepresentation.class))),
+            @APIResponse(responseCode = "304", description = "Autor não modificado desde o ETag informado em If-None-Match"),
             @APIResponse(responseCode = "404", description = "Autor não encontrado")
     })
-    public Response getAutorById(@PathParam("id") Long id) {
+    public Response getAutorById(@PathParam("id") Long id, @Context Request request) {
+        EntityTag tag = EntityTags.autor(id);
+        if (tag == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Autor com ID " + id + " não encontrado.").build();
+        }
+        Response.ResponseBuilder naoModificado = EntityTags.avaliar(request, tag);
+        if (naoModificado != null) {
+            return naoModificado.build();
+        }
+
         Autor autor = Autor.findById(id);
 
         if (autor == null) {
             return Response.status(Response.Status.NOT_FOUND).entity("Autor com ID " + id + " não encontrado.").build();
         }
-        return Response.ok(toRepresentation(autor)).build();
+        return Response.ok(toRepresentation(autor)).tag(EntityTags.autor(autor)).build();
     }
 
     @POST
@@ -144,17 +176,30 @@ public class AutorResource {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = AutorRepresentation.class))),
             @APIResponse(responseCode = "400", description = "Dados do autor inválidos"),
-            @APIResponse(responseCode = "404", description = "Autor não encontrado")
+            @APIResponse(responseCode = "404", description = "Autor não encontrado"),
+            @APIResponse(responseCode = "412", description = "O autor foi alterado desde o ETag informado em If-Match")
     })
     @Transactional
-    public Response updateAutor(@PathParam("id") Long id, @Valid AutorRepresentation autorRep) {
+    public Response updateAutor(@PathParam("id") Long id, @Valid AutorRepresentation autorRep, @Context Request request) {
         return Autor.findByIdOptional(id)
                 .map(panacheEntityBase -> {
                     Autor autor = (Autor) panacheEntityBase;
+                    Response.ResponseBuilder precondicao = EntityTags.avaliar(request, EntityTags.autor(autor));
+                    if (precondicao != null) {
+                        return precondicao.build();
+                    }
                     autor.nome = autorRep.nome;
                     autor.nacionalidade = autorRep.nacionalidade;
 
-                    return Response.ok(toRepresentation(autor)).build();
+                    try {
+                        // Força o incremento de versão agora, para que a resposta traga o novo ETag
+                        // e uma alteração concorrente apareça como 412.
+                        Autor.flush();
+                    } catch (OptimisticLockException e) {
+                        return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                    }
+
+                    return Response.ok(toRepresentation(autor)).tag(EntityTags.autor(autor)).build();
                 })
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
@@ -168,8 +213,10 @@ public class AutorResource {
     })
     @Transactional
     public Response deleteAutor(@PathParam("id") Long id) {
-        boolean deleted = Autor.deleteById(id);
-        if (deleted) {
+        // Remove pela entidade (e não por DELETE em massa) para que os listeners vejam a exclusão.
+        Autor autor = Autor.findById(id);
+        if (autor != null) {
+            autor.delete();
             return Response.noContent().build();
         } else {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -208,10 +255,11 @@ public class AutorResource {
 
     @GET
     @Path("/search")
-    @Operation(summary = "Busca avançada de autores", description = "Permite buscar autores por texto livre em nome ou nacionalidade, com paginação e ordenação.")
+    @Operation(summary = "Busca avançada de autores", description = "Permite buscar autores por texto livre em nome ou nacionalidade, com paginação e ordenação. Com o parâmetro after a paginação passa a ser por cursor (keyset).")
     @APIResponse(responseCode = "200", description = "Resultados da busca",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = SearchAutorResponse.class)))
+    @APIResponse(responseCode = "400", description = "Cursor, campo de fields ou size inválido")
     public Response search(
             @Parameter(description = "Query de busca por nome ou nacionalidade")
             @RestQuery("q") String q,
@@ -221,39 +269,145 @@ public class AutorResource {
             @RestQuery("direction") @DefaultValue("asc") String direction,
             @Parameter(description = "Número da página (base 1)")
             @RestQuery("page") @DefaultValue("1") int page,
-            @Parameter(description = "Tamanho da página")
-            @RestQuery("size") @DefaultValue("10") int size) {
+            @Parameter(description = "Tamanho da página (1 a " + PaginationMetadata.MAX_PAGE_SIZE + ")")
+            @RestQuery("size") @DefaultValue("10") int size,
+            @Parameter(description = "Cursor opaco da paginação por keyset; vazio inicia a partir do primeiro registro")
+            @RestQuery("after") String after,
+            @Parameter(description = "Contagem do total de registros: exact (padrão; reaproveita o total enquanto não houver escrita), estimate (aceita um total já calculado, mesmo desatualizado) ou none")
+            @RestQuery("count") @DefaultValue("exact") String count,
+            @Parameter(description = "Campos do autor a retornar, separados por vírgula (id, nome, nacionalidade, _links); a consulta lê só essas colunas")
+            @RestQuery("fields") String fields) {
+        try {
+            PaginationMetadata.validarTamanho(size);
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
+        String depois = PaginationMetadata.cursor(after, uriInfo);
+        String chave = SearchResponseCache.chave("autores", uriInfo, q, sort, direction, page, size, depois, count, fields);
+        return searchCache.responder("autores", chave, () -> pesquisar(q, sort, direction, page, size, depois, count, fields),
+                CatalogChange.Entidade.AUTOR);
+    }
+
+    private Response pesquisar(String q, String sort, String direction, int page, int size, String after, String count, String fields) {
+        SparseFieldset campos;
+        try {
+            campos = AutorRepresentation.campos(fields);
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
 
         Set<String> allowedSortFields = Set.of("id", "nome", "nacionalidade");
         if (!allowedSortFields.contains(sort)) {
             sort = "id";
         }
 
-        Sort sortObj = Sort.by(
-                sort,
-                "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending
-        );
+        boolean descending = "desc".equalsIgnoreCase(direction);
 
-        int effectivePage = page <= 1 ? 0 : page - 1;
+        StringBuilder filtro = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        if (q != null && !q.isBlank()) {
+            filtro.append("(lower(nome) like :q or lower(nacionalidade) like :q)");
+            params.put("q", "%" + q.toLowerCase() + "%");
+        }
 
-        PanacheQuery<Autor> query;
-        if (q == null || q.isBlank()) {
-            query = Autor.findAll(sortObj);
-        } else {
-            String searchTerm = "%" + q.toLowerCase() + "%";
-            query = Autor.find("lower(nome) like ?1 or lower(nacionalidade) like ?1",
-                    sortObj, searchTerm);
+        Long totalElements = countCache.contar(count, "autores", filtro.toString(), params,
+                () -> filtro.length() == 0 ? Autor.count() : Autor.count(filtro.toString(), params),
+                CatalogChange.Entidade.AUTOR);
+
+        if (after != null) {
+            try {
+                return searchCursor(q, sort, direction, descending, size, after, filtro, params, totalElements, campos);
+            } catch (WebApplicationException e) {
+                return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+            }
         }
 
-        long totalElements = query.count();
-        long totalPages = (long) Math.ceil((double) totalElements / size);
+        Sort sortObj = Sort.by(sort, descending ? Sort.Direction.Descending : Sort.Direction.Ascending);
+        int effectivePage = page <= 1 ? 0 : page - 1;
+
+        PanacheQuery<Autor> query = filtro.length() == 0
+                ? Autor.findAll(sortObj)
+                : Autor.find(filtro.toString(), sortObj, params);
+
+        Long totalPages = totalElements != null ? (long) Math.ceil((double) totalElements / size) : null;
 
-        List<Autor> autores = query.page(effectivePage, size).list();
+        List<?> autores = campos != null
+                ? toProjectionList(campos, campos.projetar("Autor", List.of(), filtro.toString(), params, sortObj, effectivePage * size, size))
+                : toRepresentationList(query.page(effectivePage, size).list());
 
         SearchAutorResponse response = SearchAutorResponse.from(
-                toRepresentationList(autores), uriInfo, q, sort, direction, page, size, totalElements, totalPages
+                autores, uriInfo, q, sort, direction, page, size, totalElements, totalPages
+        );
+
+        return Response.ok(response).build();
+    }
+
+    private Response searchCursor(String q, String sort, String direction, boolean descending, int size, String after,
+                                  StringBuilder filtro, Map<String, Object> params, Long totalElements,
+                                  SparseFieldset campos) {
+        if (!after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after, sort);
+            if (filtro.length() > 0) {
+                filtro.append(" and ");
+            }
+            filtro.append(KeysetCursor.predicado(sort, descending));
+            params.put("cursorId", cursor.id);
+            if (!"id".equals(sort)) {
+                params.put("cursorValor", cursor.valor);
+            }
+        }
+
+        Sort sortObj = KeysetCursor.ordenacao(sort, descending);
+        if (campos != null) {
+            return searchCursorProjetado(q, sort, direction, size, after, filtro, params, totalElements, campos, sortObj);
+        }
+        PanacheQuery<Autor> query = filtro.length() == 0
+                ? Autor.findAll(sortObj)
+                : Autor.find(filtro.toString(), sortObj, params);
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar contar.
+        List<Autor> autores = query.range(0, size).list();
+        String nextCursor = null;
+        if (autores.size() > size) {
+            autores = autores.subList(0, size);
+            Autor ultimo = autores.get(size - 1);
+            nextCursor = KeysetCursor.encode(sort, valorOrdenacao(ultimo, sort), ultimo.id);
+        }
+
+        SearchAutorResponse response = SearchAutorResponse.fromCursor(
+                toRepresentationList(autores), uriInfo, q, sort, direction, size, totalElements, after, nextCursor
         );
 
         return Response.ok(response).build();
     }
+
+    /**
+     * Modo cursor com projeção: a coluna de ordenação entra no select para montar o próximo cursor.
+     */
+    private Response searchCursorProjetado(String q, String sort, String direction, int size, String after,
+                                           StringBuilder filtro, Map<String, Object> params, Long totalElements,
+                                           SparseFieldset campos, Sort sortObj) {
+        SparseFieldset.Projecao projecao = campos.projetar("Autor", List.of(sort), filtro.toString(), params, sortObj, 0, size + 1);
+        List<Object[]> linhas = projecao.linhas();
+        String nextCursor = null;
+        if (linhas.size() > size) {
+            linhas = linhas.subList(0, size);
+            Object[] ultimo = linhas.get(size - 1);
+            nextCursor = KeysetCursor.encode(sort, projecao.valor(ultimo, sort), (Long) projecao.valor(ultimo, "id"));
+        }
+
+        SearchAutorResponse response = SearchAutorResponse.fromCursor(
+                toProjectionList(campos, new SparseFieldset.Projecao(projecao.colunas(), linhas)),
+                uriInfo, q, sort, direction, size, totalElements, after, nextCursor
+        );
+        return Response.ok(response).build();
+    }
+
+    private static Object valorOrdenacao(Autor autor, String sort) {
+        return switch (sort) {
+            case "nome" -> autor.nome;
+            case "nacionalidade" -> autor.nacionalidade;
+            default -> autor.id;
+        };
+    }
 }
\ No newline at end of file
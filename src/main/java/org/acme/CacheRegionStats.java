@@ -0,0 +1,42 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.stat.CacheRegionStatistics;
+
+@Schema(description = "Estatísticas de uma região do cache de segundo nível ou do cache de respostas das buscas")
+public class CacheRegionStats {
+
+    @Schema(description = "Nome da região (entidade ou coleção)", example = "org.acme.Autor")
+    public String regiao;
+
+    @Schema(description = "Leituras atendidas pelo cache")
+    public long acertos;
+
+    @Schema(description = "Leituras que precisaram ir ao banco")
+    public long falhas;
+
+    @Schema(description = "Entradas gravadas no cache")
+    public long gravacoes;
+
+    @Schema(description = "Entradas atualmente em memória; -1 quando o provedor não informa")
+    public long elementos;
+
+    @Schema(description = "Fração das leituras atendidas pelo cache (0 a 1)")
+    public double taxaAcerto;
+
+    public static CacheRegionStats from(String regiao, CacheRegionStatistics stats) {
+        return of(regiao, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(), stats.getElementCountInMemory());
+    }
+
+    public static CacheRegionStats of(String regiao, long acertos, long falhas, long gravacoes, long elementos) {
+        CacheRegionStats result = new CacheRegionStats();
+        result.regiao = regiao;
+        result.acertos = acertos;
+        result.falhas = falhas;
+        result.gravacoes = gravacoes;
+        result.elementos = elementos;
+        long leituras = result.acertos + result.falhas;
+        result.taxaAcerto = leituras == 0 ? 0 : (double) result.acertos / leituras;
+        return result;
+    }
+}
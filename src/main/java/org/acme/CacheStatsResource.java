@@ -0,0 +1,64 @@
+package org.acme;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Path("/estatisticas/cache")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Estatísticas", description = "Indicadores internos da API")
+public class CacheStatsResource {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    SearchResponseCache searchCache;
+
+    @GET
+    @Operation(summary = "Estatísticas do cache de segundo nível",
+            description = "Acertos, falhas e gravações por região do cache de segundo nível (autores, editoras, detalhes e autores de cada livro), acumulados desde a inicialização")
+    @APIResponse(responseCode = "200", description = "Estatísticas por região",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = CacheRegionStats.class, type = SchemaType.ARRAY)))
+    public Response regioes() {
+        Statistics statistics = sessionFactory.getStatistics();
+        String[] nomes = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(nomes);
+        List<CacheRegionStats> regioes = new ArrayList<>(nomes.length);
+        for (String nome : nomes) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(nome);
+            if (stats != null) {
+                regioes.add(CacheRegionStats.from(nome, stats));
+            }
+        }
+        return Response.ok(regioes).build();
+    }
+
+    @GET
+    @Path("/buscas")
+    @Operation(summary = "Estatísticas do cache de respostas das buscas",
+            description = "Acertos, falhas, gravações, entradas em memória e taxa de acerto do cache de /livros/search, /autores/search e /editoras/search, acumulados desde a inicialização")
+    @APIResponse(responseCode = "200", description = "Estatísticas por recurso",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = CacheRegionStats.class, type = SchemaType.ARRAY)))
+    public Response buscas() {
+        return Response.ok(searchCache.estatisticas()).build();
+    }
+}
@@ -0,0 +1,33 @@
+package org.acme;
+
+/**
+ * Alteração confirmada no catálogo, disparada como evento CDI depois do commit.
+ * <p>
+ * Para livros, {@code livro} traz o estado gravado e {@code livroAnterior} o estado
+ * lido do banco antes da alteração (nulo na criação). Para autores e editoras, {@code nome}
+ * traz o nome atual.
+ */
+public record CatalogChange(Entidade entidade, Operacao operacao, Long id, String nome,
+                            LivroSnapshot livro, LivroSnapshot livroAnterior) {
+
+    public enum Entidade {
+        LIVRO,
+        AUTOR,
+        EDITORA,
+        DETALHES_EDITORA
+    }
+
+    public enum Operacao {
+        CRIADO,
+        ATUALIZADO,
+        EXCLUIDO
+    }
+
+    public static CatalogChange livro(Operacao operacao, LivroSnapshot livro, LivroSnapshot livroAnterior) {
+        return new CatalogChange(Entidade.LIVRO, operacao, livro.id(), livro.titulo(), livro, livroAnterior);
+    }
+
+    public static CatalogChange of(Entidade entidade, Operacao operacao, Long id, String nome) {
+        return new CatalogChange(entidade, operacao, id, nome, null, null);
+    }
+}
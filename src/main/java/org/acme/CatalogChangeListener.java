@@ -0,0 +1,82 @@
+package org.acme;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+
+/**
+ * Listener JPA de {@link Livro}, {@link Autor}, {@link Editora} e {@link DetalhesEditora}
+ * que traduz os callbacks de ciclo de vida em {@link CatalogChange}.
+ */
+public class CatalogChangeListener {
+
+    @PostLoad
+    void carregado(Object entidade) {
+        if (entidade instanceof Livro livro) {
+            livro.estadoCarregado = LivroSnapshot.of(livro);
+        }
+        prepararTransacao();
+    }
+
+    @PrePersist
+    @PreRemove
+    void antesDeAlterar(Object entidade) {
+        prepararTransacao();
+    }
+
+    @PostPersist
+    void criado(Object entidade) {
+        registrar(entidade, CatalogChange.Operacao.CRIADO);
+    }
+
+    @PostUpdate
+    void atualizado(Object entidade) {
+        registrar(entidade, CatalogChange.Operacao.ATUALIZADO);
+    }
+
+    @PostRemove
+    void excluido(Object entidade) {
+        registrar(entidade, CatalogChange.Operacao.EXCLUIDO);
+    }
+
+    private void registrar(Object entidade, CatalogChange.Operacao operacao) {
+        CatalogChange change;
+        if (entidade instanceof Livro livro) {
+            LivroSnapshot atual = LivroSnapshot.of(livro);
+            change = CatalogChange.livro(operacao, atual, operacao == CatalogChange.Operacao.CRIADO ? null : livro.estadoCarregado);
+            livro.estadoCarregado = atual;
+        } else if (entidade instanceof Autor autor) {
+            change = CatalogChange.of(CatalogChange.Entidade.AUTOR, operacao, autor.id, autor.nome);
+        } else if (entidade instanceof Editora editora) {
+            change = CatalogChange.of(CatalogChange.Entidade.EDITORA, operacao, editora.id, editora.nome);
+        } else if (entidade instanceof DetalhesEditora detalhes) {
+            change = CatalogChange.of(CatalogChange.Entidade.DETALHES_EDITORA, operacao, detalhes.id, null);
+        } else {
+            return;
+        }
+        CatalogChanges changes = changes();
+        if (changes != null) {
+            changes.registrar(change);
+        }
+    }
+
+    private static void prepararTransacao() {
+        CatalogChanges changes = changes();
+        if (changes != null) {
+            changes.prepararTransacao();
+        }
+    }
+
+    /**
+     * {@code null} fora do contêiner CDI, como nos benchmarks que usam o Hibernate sem o Quarkus.
+     */
+    private static CatalogChanges changes() {
+        ArcContainer container = Arc.container();
+        return container != null ? container.instance(CatalogChanges.class).get() : null;
+    }
+}
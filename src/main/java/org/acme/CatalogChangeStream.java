@@ -0,0 +1,328 @@
+package org.acme;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Distribui as alterações confirmadas do catálogo ({@link CatalogChange}) aos clientes de {@code GET /eventos}
+ * como server-sent events.
+ * <p>
+ * Cada evento é serializado uma vez, recebe um id ({@code <época>-<sequência>}, com a época da inicialização da
+ * aplicação) e é oferecido à fila limitada de cada assinante,
+ * sem bloquear a thread que confirmou a transação. Cada assinante tem uma thread virtual que esvazia a fila
+ * no ritmo do cliente; se a fila enche, ou um envio não termina dentro de {@code catalogo.eventos.timeout-envio},
+ * o assinante é descartado (recebe {@code descartado}, se ainda der) e a conexão é fechada.
+ * <p>
+ * Os últimos eventos ficam num histórico curto: um cliente que reconecta com {@code Last-Event-ID} recebe o
+ * que perdeu, ou {@code reiniciar} quando o histórico não alcança o id informado ou o id é de antes de a aplicação
+ * reiniciar, e ele precisa recarregar o catálogo.
+ */
+@ApplicationScoped
+public class CatalogChangeStream {
+
+    private static final Logger LOG = Logger.getLogger(CatalogChangeStream.class);
+    private static final int HISTORICO = 1024;
+
+    static final String REINICIAR = "reiniciar";
+    static final String DESCARTADO = "descartado";
+
+    // Acorda a thread do assinante descartado, parada em fila.poll, para que a conexão feche logo.
+    private static final Evento FIM = new Evento(0, null, null, null);
+
+    @ConfigProperty(name = "catalogo.eventos.buffer", defaultValue = "256")
+    int capacidade;
+
+    @ConfigProperty(name = "catalogo.eventos.timeout-envio", defaultValue = "10S")
+    Duration timeoutEnvio;
+
+    @ConfigProperty(name = "catalogo.eventos.heartbeat", defaultValue = "15S")
+    Duration heartbeat;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ArrayDeque<Evento> historico = new ArrayDeque<>(HISTORICO);
+
+    // A sequência recomeça a cada inicialização: a época no id impede que um Last-Event-ID antigo seja tomado por atual.
+    private final String epoca = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    // Guarda a sequência, o histórico e a entrega às filas: os assinantes recebem os eventos na ordem dos ids.
+    private final ReentrantLock lock = new ReentrantLock();
+    private long sequencia;
+
+    private Counter publicados;
+    private Counter descartados;
+
+    @PostConstruct
+    void registrarMetricas() {
+        publicados = registry.counter(MetricsConfig.PREFIXO + "eventos.publicados");
+        descartados = registry.counter(MetricsConfig.PREFIXO + "eventos.assinantes.descartados");
+        registry.gaugeCollectionSize(MetricsConfig.PREFIXO + "eventos.assinantes", List.of(), assinantes);
+    }
+
+    void aoAlterar(@Observes CatalogChange change) {
+        Alteracao alteracao = Alteracao.from(change);
+        publicar(alteracao.nomeEvento(), change.entidade(), alteracao);
+    }
+
+    /**
+     * Avisa todos os assinantes de que o catálogo foi trocado sem passar pelas entidades
+     * (como na restauração de um snapshot) e precisa ser recarregado.
+     */
+    void reiniciar() {
+        publicar(REINICIAR, null, null);
+    }
+
+    private void publicar(String nome, CatalogChange.Entidade entidade, Alteracao alteracao) {
+        String json;
+        try {
+            json = alteracao != null ? objectMapper.writeValueAsString(alteracao) : "{}";
+        } catch (JsonProcessingException e) {
+            LOG.errorf(e, "Falha ao serializar o evento %s", nome);
+            return;
+        }
+        lock.lock();
+        try {
+            Evento evento = new Evento(++sequencia, nome, entidade, json);
+            if (historico.size() == HISTORICO) {
+                historico.removeFirst();
+            }
+            historico.addLast(evento);
+            for (Assinante assinante : assinantes) {
+                assinante.oferecer(evento);
+            }
+        } finally {
+            lock.unlock();
+        }
+        publicados.increment();
+    }
+
+    /**
+     * Registra o cliente e passa a enviar, numa thread virtual própria, os eventos das {@code entidades} pedidas.
+     * Com {@code ultimoId}, primeiro reenvia o que o cliente perdeu desde esse id, ou {@code reiniciar} se o id
+     * for de outra época.
+     *
+     * @throws IllegalArgumentException se {@code ultimoId} não tiver o formato {@code <época>-<sequência>}
+     */
+    public void assinar(SseEventSink sink, Sse sse, Set<CatalogChange.Entidade> entidades, String ultimoId) {
+        Long ultimaSequencia = null;
+        boolean outraEpoca = false;
+        if (ultimoId != null) {
+            int separador = ultimoId.lastIndexOf('-');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Last-Event-ID sem época: " + ultimoId);
+            }
+            ultimaSequencia = Long.valueOf(ultimoId.substring(separador + 1));
+            outraEpoca = !epoca.equals(ultimoId.substring(0, separador));
+        }
+        Assinante assinante = new Assinante(sink, sse, entidades);
+        lock.lock();
+        try {
+            if (outraEpoca) {
+                assinante.reiniciar();
+            } else if (ultimaSequencia != null && ultimaSequencia != sequencia) {
+                assinante.reenviar(ultimaSequencia);
+            }
+            assinantes.add(assinante);
+        } finally {
+            lock.unlock();
+        }
+        Thread.ofVirtual().name("eventos-" + Long.toHexString(System.identityHashCode(assinante))).start(assinante);
+    }
+
+    int assinantes() {
+        return assinantes.size();
+    }
+
+    private record Evento(long id, String nome, CatalogChange.Entidade entidade, String json) {
+    }
+
+    private final class Assinante implements Runnable {
+
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final Set<CatalogChange.Entidade> entidades;
+        private final BlockingQueue<Evento> fila = new ArrayBlockingQueue<>(capacidade);
+        private volatile String motivoDescarte;
+
+        Assinante(SseEventSink sink, Sse sse, Set<CatalogChange.Entidade> entidades) {
+            this.sink = sink;
+            this.sse = sse;
+            this.entidades = entidades;
+        }
+
+        /**
+         * Chamado com o lock do stream: nunca bloqueia, e com a fila cheia descarta o assinante.
+         */
+        void oferecer(Evento evento) {
+            if (motivoDescarte != null || (evento.entidade() != null && !entidades.contains(evento.entidade()))) {
+                return;
+            }
+            if (!fila.offer(evento)) {
+                descartar("fila cheia (" + capacidade + " eventos)");
+            }
+        }
+
+        /**
+         * Enfileira os eventos posteriores a {@code ultimoId}, ou {@code reiniciar} quando o histórico não os tem
+         * (ou não cabem na fila).
+         */
+        void reenviar(long ultimoId) {
+            Evento primeiro = historico.peekFirst();
+            if (ultimoId > sequencia || primeiro == null || primeiro.id() > ultimoId + 1 || sequencia - ultimoId > capacidade) {
+                reiniciar();
+                return;
+            }
+            for (Evento evento : historico) {
+                if (evento.id() > ultimoId) {
+                    oferecer(evento);
+                }
+            }
+        }
+
+        void reiniciar() {
+            fila.offer(new Evento(sequencia, REINICIAR, null, "{}"));
+        }
+
+        private void descartar(String motivo) {
+            motivoDescarte = motivo;
+            assinantes.remove(this);
+            fila.clear();
+            fila.offer(FIM);
+            descartados.increment();
+            LOG.infof("Assinante de eventos descartado: %s", motivo);
+        }
+
+        @Override
+        public void run() {
+            try {
+                // O comentário inicial envia os cabeçalhos da resposta antes do primeiro evento.
+                enviar(sse.newEventBuilder().comment("conectado").build());
+                while (motivoDescarte == null && !sink.isClosed()) {
+                    Evento evento = fila.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (motivoDescarte != null) {
+                        break;
+                    }
+                    // O JSON já vem pronto e segue como texto: não passa de novo pelo Jackson nem por ResponseCompression.
+                    enviar(evento == null
+                            ? sse.newEventBuilder().comment("ping").build()
+                            : sse.newEventBuilder()
+                            .id(epoca + "-" + evento.id())
+                            .name(evento.nome())
+                            .data(evento.json())
+                            .build());
+                }
+                if (motivoDescarte != null && !sink.isClosed()) {
+                    // Sem esperar: o cliente já está atrasado, e o aviso é só uma cortesia antes de fechar.
+                    sink.send(sse.newEventBuilder().name(DESCARTADO).data(motivoDescarte).build());
+                }
+            } catch (TimeoutException e) {
+                lock.lock();
+                try {
+                    descartar("envio demorou mais de " + timeoutEnvio.toMillis() + " ms");
+                } finally {
+                    lock.unlock();
+                }
+            } catch (ExecutionException e) {
+                LOG.debugf("Assinante de eventos desconectado: %s", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                assinantes.remove(this);
+                sink.close();
+            }
+        }
+
+        private void enviar(OutboundSseEvent evento) throws InterruptedException, ExecutionException, TimeoutException {
+            sink.send(evento).toCompletableFuture().get(timeoutEnvio.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Dados de um evento. {@code status} e {@code statusAnterior} só aparecem para livros.
+     */
+    @Schema(name = "AlteracaoCatalogo", description = "Alteração confirmada no catálogo, enviada em GET /eventos")
+    public static class Alteracao {
+
+        @Schema(description = "Tipo da entidade alterada", example = "LIVRO")
+        public CatalogChange.Entidade entidade;
+
+        @Schema(description = "Operação confirmada; STATUS_ALTERADO quando a atualização mudou o status do livro", example = "STATUS_ALTERADO")
+        public String operacao;
+
+        @Schema(description = "Id da entidade", example = "1")
+        public Long id;
+
+        @Schema(description = "Título do livro ou nome do autor/editora", example = "Dom Casmurro")
+        public String nome;
+
+        @Schema(description = "Status atual do livro", example = "EMPRESTADO")
+        public Livro.StatusLivro status;
+
+        @Schema(description = "Status do livro antes da alteração", example = "DISPONIVEL")
+        public Livro.StatusLivro statusAnterior;
+
+        @Schema(description = "Id da editora do livro", example = "1")
+        public Long editoraId;
+
+        @Schema(description = "Instante em que o evento foi publicado")
+        public Instant instante;
+
+        static Alteracao from(CatalogChange change) {
+            Alteracao alteracao = new Alteracao();
+            alteracao.entidade = change.entidade();
+            alteracao.operacao = change.operacao().name();
+            alteracao.id = change.id();
+            alteracao.nome = change.nome();
+            alteracao.instante = Instant.now();
+            if (change.livro() != null) {
+                alteracao.status = change.livro().status();
+                alteracao.editoraId = change.livro().editoraId();
+            }
+            if (change.livroAnterior() != null) {
+                alteracao.statusAnterior = change.livroAnterior().status();
+                if (change.operacao() == CatalogChange.Operacao.ATUALIZADO && alteracao.statusAnterior != alteracao.status) {
+                    alteracao.operacao = "STATUS_ALTERADO";
+                }
+            }
+            return alteracao;
+        }
+
+        /**
+         * Nome do evento SSE, como {@code livro.criado} ou {@code livro.status_alterado}.
+         */
+        String nomeEvento() {
+            return (entidade.name() + "." + operacao).toLowerCase(Locale.ROOT);
+        }
+    }
+}
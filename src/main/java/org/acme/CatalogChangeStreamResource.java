@@ -0,0 +1,75 @@
+package org.acme;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+@Path("/eventos")
+@Tag(name = "Eventos", description = "Alterações do catálogo em tempo real")
+public class CatalogChangeStreamResource {
+
+    @Inject
+    CatalogChangeStream stream;
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Acompanhar alterações do catálogo",
+            description = "Server-sent events com cada criação, atualização, mudança de status e exclusão de livros, autores e editoras, "
+                    + "enviados depois do commit. Eventos: <entidade>.<operacao> (como livro.criado ou livro.status_alterado); "
+                    + "reiniciar quando o cliente precisa recarregar o catálogo; descartado antes de fechar a conexão de um cliente "
+                    + "que não acompanhou o ritmo dos eventos")
+    @APIResponse(responseCode = "200", description = "Fluxo de eventos",
+            content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS,
+                    schema = @Schema(implementation = CatalogChangeStream.Alteracao.class)))
+    @APIResponse(responseCode = "400", description = "Entidade desconhecida ou Last-Event-ID inválido")
+    public void assinar(
+            @Parameter(description = "Entidades a acompanhar, separadas por vírgula (livro, autor, editora, detalhes_editora); padrão: todas")
+            @QueryParam("entidades") String entidades,
+            @Parameter(description = "Id do último evento recebido (<época>-<sequência>), enviado pelo navegador ao reconectar; os eventos perdidos são reenviados, ou reiniciar se a aplicação reiniciou desde então")
+            @HeaderParam("Last-Event-ID") String ultimoId,
+            @Context SseEventSink sink,
+            @Context Sse sse) {
+        try {
+            stream.assinar(sink, sse, entidades(entidades), ultimoId == null || ultimoId.isBlank() ? null : ultimoId.trim());
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Last-Event-ID inválido.").build());
+        }
+    }
+
+    private static Set<CatalogChange.Entidade> entidades(String entidades) {
+        Set<CatalogChange.Entidade> selecionadas = EnumSet.allOf(CatalogChange.Entidade.class);
+        if (entidades != null && !entidades.isBlank()) {
+            selecionadas.clear();
+            for (String entidade : entidades.split(",")) {
+                try {
+                    selecionadas.add(CatalogChange.Entidade.valueOf(entidade.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST)
+                            .entity("Entidade '" + entidade.trim() + "' desconhecida em entidades.").build());
+                }
+            }
+        }
+        return selecionadas;
+    }
+}
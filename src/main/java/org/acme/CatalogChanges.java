@@ -0,0 +1,130 @@
+package org.acme;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Acumula as alterações de entidades feitas numa transação e as publica como
+ * eventos {@link CatalogChange} somente depois do commit. Em rollback, nada é publicado.
+ * <p>
+ * A sincronização é registrada cedo (ao carregar, persistir ou remover uma entidade),
+ * porque os callbacks de update só rodam no flush, já dentro do commit. Operações em lote que não passam
+ * pelas entidades registram suas alterações com {@link #registrar(CatalogChange)} dentro da própria transação.
+ * <p>
+ * Cada transação segura a leitura de uma trava do início do commit até publicar os eventos; {@link #entreCommits}
+ * segura a escrita, para quem precisa ler do banco um estado que os eventos depois vão continuar mantendo.
+ */
+@ApplicationScoped
+public class CatalogChanges {
+
+    private static final Logger LOG = Logger.getLogger(CatalogChanges.class);
+    private static final Object CHAVE = CatalogChanges.class;
+
+    @Inject
+    TransactionSynchronizationRegistry registry;
+
+    @Inject
+    Event<CatalogChange> eventos;
+
+    private final ReentrantReadWriteLock commits = new ReentrantReadWriteLock();
+
+    void prepararTransacao() {
+        if (registry.getTransactionKey() != null) {
+            pendentes();
+        }
+    }
+
+    /**
+     * Guarda a alteração para publicar depois do commit da transação atual (ou publica já, fora de transação).
+     */
+    void registrar(CatalogChange change) {
+        if (registry.getTransactionKey() == null) {
+            publicar(List.of(change));
+            return;
+        }
+        Pendentes pendentes = pendentes();
+        if (pendentes != null) {
+            pendentes.alteracoes.add(change);
+        } else {
+            // A transação já está concluindo e não aceita novas sincronizações.
+            publicar(List.of(change));
+        }
+    }
+
+    /**
+     * Executa {@code leitura} sem nenhum commit em andamento: os commits anteriores já publicaram seus eventos
+     * e os seguintes esperam, de modo que nenhum evento publicado depois se refere a algo que a leitura já viu.
+     */
+    public <T> T entreCommits(Supplier<T> leitura) {
+        if (commits.getReadHoldCount() > 0) {
+            // Chamado por um observador durante a publicação: esperar pela escrita travaria a própria thread.
+            throw new IllegalStateException("entreCommits chamado durante a publicação de um commit");
+        }
+        commits.writeLock().lock();
+        try {
+            return leitura.get();
+        } finally {
+            commits.writeLock().unlock();
+        }
+    }
+
+    private void publicar(List<CatalogChange> alteracoes) {
+        for (CatalogChange change : alteracoes) {
+            try {
+                eventos.fire(change);
+            } catch (RuntimeException e) {
+                LOG.errorf(e, "Falha ao publicar alteração do catálogo %s", change);
+            }
+        }
+    }
+
+    private Pendentes pendentes() {
+        Pendentes pendentes = (Pendentes) registry.getResource(CHAVE);
+        if (pendentes == null) {
+            pendentes = new Pendentes();
+            try {
+                registry.registerInterposedSynchronization(pendentes);
+            } catch (IllegalStateException e) {
+                return null;
+            }
+            registry.putResource(CHAVE, pendentes);
+        }
+        return pendentes;
+    }
+
+    private final class Pendentes implements Synchronization {
+
+        final List<CatalogChange> alteracoes = new ArrayList<>();
+        private boolean travado;
+
+        @Override
+        public void beforeCompletion() {
+            commits.readLock().lock();
+            travado = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (status == Status.STATUS_COMMITTED) {
+                    publicar(alteracoes);
+                }
+            } finally {
+                if (travado) {
+                    travado = false;
+                    commits.readLock().unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.acme;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de gerações de escrita por tipo de entidade, incrementado a cada {@link CatalogChange}.
+ * <p>
+ * Um valor calculado a partir do banco pode ser guardado junto com a geração lida antes da consulta;
+ * enquanto a geração não mudar, nenhuma escrita foi confirmada desde então e o valor continua válido.
+ */
+@ApplicationScoped
+public class CatalogGenerations {
+
+    private final Map<CatalogChange.Entidade, AtomicLong> geracoes = new EnumMap<>(CatalogChange.Entidade.class);
+
+    public CatalogGenerations() {
+        for (CatalogChange.Entidade entidade : CatalogChange.Entidade.values()) {
+            geracoes.put(entidade, new AtomicLong());
+        }
+    }
+
+    void aoAlterar(@Observes CatalogChange change) {
+        geracoes.get(change.entidade()).incrementAndGet();
+    }
+
+    /**
+     * Avança as gerações sem um {@link CatalogChange}, para alterações que não passam pelas entidades
+     * (como a restauração de um snapshot).
+     */
+    void avancar(CatalogChange.Entidade... entidades) {
+        for (CatalogChange.Entidade entidade : entidades) {
+            geracoes.get(entidade).incrementAndGet();
+        }
+    }
+
+    /**
+     * Geração combinada das entidades informadas. Como cada contador só cresce, a soma
+     * muda sempre que qualquer uma delas for alterada.
+     */
+    public long geracao(CatalogChange.Entidade... entidades) {
+        long soma = 0;
+        for (CatalogChange.Entidade entidade : entidades) {
+            soma += geracoes.get(entidade).get();
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,188 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Exportação e restauração do acervo inteiro como um arquivo CSV por tabela.
+ * <p>
+ * As duas operações rodam dentro do H2, sem passar pelas entidades: a exportação usa {@code CSVWRITE}
+ * numa transação {@code REPEATABLE READ} (todas as tabelas no mesmo instante) e a restauração apaga
+ * as tabelas e as recarrega com um {@code INSERT ... SELECT FROM CSVREAD} por tabela, numa única
+ * transação. Em seguida as sequências são posicionadas depois do maior id e os estados em memória
+ * (cache de segundo nível, índices de busca e de ISBN, sugestões, contadores e gerações) são reconstruídos a partir do banco,
+ * e os assinantes de {@code GET /eventos} recebem {@code reiniciar}.
+ * <p>
+ * Durante a restauração as demais requisições continuam sendo atendidas e veem o acervo anterior até o commit.
+ */
+@ApplicationScoped
+public class CatalogSnapshot {
+
+    private static final Logger LOG = Logger.getLogger(CatalogSnapshot.class);
+    private static final Pattern NOME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String OPCOES_CSV = "charset=UTF-8";
+    private static final int INCREMENTO_SEQUENCIA = 50;
+
+    /**
+     * Tabelas na ordem das chaves estrangeiras (apagadas na ordem inversa), com as colunas exportadas.
+     */
+    private static final Map<String, String> TABELAS = new LinkedHashMap<>();
+
+    static {
+        TABELAS.put("Editora", "id, nome, endereco, version");
+        TABELAS.put("DetalhesEditora", "id, telefone, email, editora_id, version");
+        TABELAS.put("Autor", "id, nome, nacionalidade, version");
+        TABELAS.put("Livro", "id, titulo, isbn, anoPublicacao, status, editora_id, version");
+        TABELAS.put("Livro_Autor", "livros_id, autores_id");
+    }
+
+    private static final List<String> COM_SEQUENCIA = List.of("Editora", "DetalhesEditora", "Autor", "Livro");
+
+    @ConfigProperty(name = "catalogo.snapshot.diretorio")
+    Path diretorio;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    LivroSearchIndex searchIndex;
+
+    @Inject
+    LivroInventory inventory;
+
+    @Inject
+    CatalogSuggester suggester;
+
+    @Inject
+    IsbnIndex isbnIndex;
+
+    @Inject
+    CatalogGenerations generations;
+
+    @Inject
+    CatalogChangeStream changeStream;
+
+    public CatalogSnapshotResponse exportar(String nome) {
+        Path destino = pasta(nome);
+        long inicio = System.nanoTime();
+        Map<String, Long> linhas = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(destino);
+            try (Connection conexao = dataSource.getConnection()) {
+                conexao.setAutoCommit(false);
+                conexao.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                try (PreparedStatement csv = conexao.prepareStatement("CALL CSVWRITE(?, ?, ?)")) {
+                    for (Map.Entry<String, String> tabela : TABELAS.entrySet()) {
+                        csv.setString(1, arquivo(destino, tabela.getKey()));
+                        csv.setString(2, "SELECT " + tabela.getValue() + " FROM " + tabela.getKey()
+                                + " ORDER BY " + tabela.getValue().split(",")[0]);
+                        csv.setString(3, OPCOES_CSV);
+                        try (ResultSet rs = csv.executeQuery()) {
+                            rs.next();
+                            linhas.put(tabela.getKey(), rs.getLong(1));
+                        }
+                    }
+                } finally {
+                    conexao.rollback();
+                }
+            }
+        } catch (IOException | SQLException e) {
+            throw new WebApplicationException("Falha ao exportar o snapshot '" + nome + "': " + e.getMessage(),
+                    Response.Status.INTERNAL_SERVER_ERROR);
+        }
+        return CatalogSnapshotResponse.of(nome, destino, linhas, inicio);
+    }
+
+    public CatalogSnapshotResponse restaurar(String nome) {
+        Path origem = pasta(nome);
+        for (String tabela : TABELAS.keySet()) {
+            if (!Files.isRegularFile(origem.resolve(tabela + ".csv"))) {
+                throw new WebApplicationException("Snapshot '" + nome + "' não encontrado ou incompleto.", Response.Status.NOT_FOUND);
+            }
+        }
+
+        long inicio = System.nanoTime();
+        Map<String, Long> linhas = new LinkedHashMap<>();
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.setAutoCommit(false);
+            try (Statement sql = conexao.createStatement()) {
+                List<String> inversa = new ArrayList<>(TABELAS.keySet());
+                Collections.reverse(inversa);
+                for (String tabela : inversa) {
+                    sql.executeUpdate("DELETE FROM " + tabela);
+                }
+                for (Map.Entry<String, String> tabela : TABELAS.entrySet()) {
+                    // CSVREAD precisa do nome do arquivo ao preparar a consulta, então ele vai como literal.
+                    linhas.put(tabela.getKey(), (long) sql.executeUpdate("INSERT INTO " + tabela.getKey()
+                            + " (" + tabela.getValue() + ") SELECT " + tabela.getValue()
+                            + " FROM CSVREAD('" + arquivo(origem, tabela.getKey()).replace("'", "''") + "', NULL, '" + OPCOES_CSV + "')"));
+                }
+                for (String tabela : COM_SEQUENCIA) {
+                    long maior;
+                    try (ResultSet rs = sql.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tabela)) {
+                        rs.next();
+                        maior = rs.getLong(1);
+                    }
+                    // Com o otimizador pooled, o valor lido é o topo do bloco: o próximo bloco começa em maior + 1.
+                    sql.executeUpdate("ALTER SEQUENCE " + tabela + "_SEQ RESTART WITH " + (maior + INCREMENTO_SEQUENCIA + 1));
+                }
+                conexao.commit();
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new WebApplicationException("Falha ao restaurar o snapshot '" + nome + "': " + e.getMessage(),
+                    Response.Status.INTERNAL_SERVER_ERROR);
+        }
+
+        sessionFactory.getCache().evictAllRegions();
+        QuarkusTransaction.requiringNew().run(() -> {
+            searchIndex.reconstruir();
+            suggester.reconstruir();
+            isbnIndex.reconstruir();
+        });
+        inventory.recarregar();
+        generations.avancar(CatalogChange.Entidade.values());
+        changeStream.reiniciar();
+        CatalogSnapshotResponse response = CatalogSnapshotResponse.of(nome, origem, linhas, inicio);
+        LOG.infof("Snapshot '%s' restaurado em %d ms: %s", nome, response.duracaoMs, linhas);
+        return response;
+    }
+
+    private Path pasta(String nome) {
+        if (nome == null || !NOME.matcher(nome).matches()) {
+            throw new WebApplicationException("Nome de snapshot inválido: use letras, números, '-' ou '_'.", Response.Status.BAD_REQUEST);
+        }
+        return diretorio.resolve(nome).toAbsolutePath();
+    }
+
+    private static String arquivo(Path pasta, String tabela) {
+        return pasta.resolve(tabela + ".csv").toString();
+    }
+}
@@ -0,0 +1,55 @@
+package org.acme;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/snapshots")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Snapshots", description = "Exportação e restauração do acervo completo")
+public class CatalogSnapshotResource {
+
+    @Inject
+    CatalogSnapshot snapshot;
+
+    @POST
+    @Path("/{nome}/export")
+    @Operation(summary = "Exportar snapshot", description = "Grava todas as tabelas do acervo em CSV no diretório catalogo.snapshot.diretorio, num único instante consistente")
+    @APIResponse(responseCode = "200", description = "Snapshot gravado",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = CatalogSnapshotResponse.class)))
+    @APIResponse(responseCode = "400", description = "Nome de snapshot inválido")
+    public Response exportar(@PathParam("nome") String nome) {
+        try {
+            return Response.ok(snapshot.exportar(nome)).build();
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
+    }
+
+    @POST
+    @Path("/{nome}/restore")
+    @Operation(summary = "Restaurar snapshot", description = "Substitui todo o acervo pelo conteúdo do snapshot, carregando cada tabela com uma única instrução INSERT ... SELECT")
+    @APIResponse(responseCode = "200", description = "Acervo restaurado",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = CatalogSnapshotResponse.class)))
+    @APIResponse(responseCode = "400", description = "Nome de snapshot inválido")
+    @APIResponse(responseCode = "404", description = "Snapshot não encontrado")
+    public Response restaurar(@PathParam("nome") String nome) {
+        try {
+            return Response.ok(snapshot.restaurar(nome)).build();
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
+    }
+}
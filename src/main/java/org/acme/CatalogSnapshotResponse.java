@@ -0,0 +1,31 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+@Schema(description = "Resultado da exportação ou restauração de um snapshot do acervo")
+public class CatalogSnapshotResponse {
+
+    @Schema(description = "Nome do snapshot", example = "acervo-2024-06")
+    public String nome;
+
+    @Schema(description = "Diretório com um arquivo CSV por tabela")
+    public String diretorio;
+
+    @Schema(description = "Linhas gravadas ou carregadas por tabela")
+    public Map<String, Long> linhas;
+
+    @Schema(description = "Duração da operação no banco, em milissegundos")
+    public long duracaoMs;
+
+    static CatalogSnapshotResponse of(String nome, Path diretorio, Map<String, Long> linhas, long inicioNanos) {
+        CatalogSnapshotResponse response = new CatalogSnapshotResponse();
+        response.nome = nome;
+        response.diretorio = diretorio.toString();
+        response.linhas = linhas;
+        response.duracaoMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+        return response;
+    }
+}
@@ -0,0 +1,239 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sugestões para autocompletar títulos de livros e nomes de autores e editoras.
+ * <p>
+ * Cada rótulo é normalizado com {@link TextNormalizer} (sem acentos, minúsculo, termos separados por
+ * um espaço) e guardado em mapas ordenados: um com o rótulo inteiro e outro com cada sufixo que começa
+ * numa palavra seguinte, de modo que "sert" encontra "Grande Sertão: Veredas". Uma consulta é um
+ * {@code subMap} pelo prefixo, que custa {@code O(log n + k)}; rótulos que começam pelo prefixo vêm
+ * antes dos que só têm uma palavra começando por ele, e dentro de cada grupo a ordem é alfabética.
+ * <p>
+ * Os mapas são {@link ConcurrentSkipListMap}, então as leituras não travam; as escritas vêm dos eventos
+ * {@link CatalogChange} e são serializadas por tipo. Uma recarga (na inicialização ou ao restaurar um snapshot)
+ * monta mapas novos e só então os troca pelos atuais, para que as leituras nunca vejam um dicionário vazio.
+ */
+@ApplicationScoped
+public class CatalogSuggester {
+
+    private static final Logger LOG = Logger.getLogger(CatalogSuggester.class);
+    private static final char FIM_TEXTO = '\u0000';
+
+    public enum Tipo {
+        LIVRO,
+        AUTOR,
+        EDITORA
+    }
+
+    private final Map<Tipo, Dicionario> dicionarios = new EnumMap<>(Tipo.class);
+
+    public CatalogSuggester() {
+        for (Tipo tipo : Tipo.values()) {
+            dicionarios.put(tipo, new Dicionario(tipo));
+        }
+    }
+
+    void aoIniciar(@Observes StartupEvent event) {
+        QuarkusTransaction.requiringNew().run(this::reconstruir);
+    }
+
+    void reconstruir() {
+        EntityManager em = Livro.getEntityManager();
+        carregar(Tipo.LIVRO, em.createQuery("select l.id, l.titulo from Livro l", Object[].class).getResultList());
+        carregar(Tipo.AUTOR, em.createQuery("select a.id, a.nome from Autor a", Object[].class).getResultList());
+        carregar(Tipo.EDITORA, em.createQuery("select e.id, e.nome from Editora e", Object[].class).getResultList());
+        LOG.infof("Sugestões carregadas: %d livros, %d autores, %d editoras", dicionarios.get(Tipo.LIVRO).tamanho(),
+                dicionarios.get(Tipo.AUTOR).tamanho(), dicionarios.get(Tipo.EDITORA).tamanho());
+    }
+
+    private void carregar(Tipo tipo, List<Object[]> linhas) {
+        dicionarios.get(tipo).substituir(linhas);
+    }
+
+    void aoAlterar(@Observes CatalogChange change) {
+        Tipo tipo = switch (change.entidade()) {
+            case LIVRO -> Tipo.LIVRO;
+            case AUTOR -> Tipo.AUTOR;
+            case EDITORA -> Tipo.EDITORA;
+            default -> null;
+        };
+        if (tipo == null) {
+            return;
+        }
+        dicionarios.get(tipo).alterar(change.id(), change.operacao() != CatalogChange.Operacao.EXCLUIDO ? change.nome() : null);
+    }
+
+    /**
+     * Até {@code limite} sugestões para o prefixo {@code q} entre os tipos pedidos.
+     */
+    public List<Sugestao> sugerir(String q, Collection<Tipo> tipos, int limite) {
+        String prefixo = chave(q);
+        if (prefixo.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        List<Sugestao> candidatas = new ArrayList<>();
+        for (Tipo tipo : tipos) {
+            dicionarios.get(tipo).sugerir(prefixo, limite, candidatas);
+        }
+        candidatas.sort(Comparator.comparing((Sugestao sugestao) -> !sugestao.inicio)
+                .thenComparing(sugestao -> sugestao.chave));
+        return candidatas.size() > limite ? candidatas.subList(0, limite) : candidatas;
+    }
+
+    /**
+     * Texto normalizado usado como chave: termos sem acento, minúsculos, separados por um espaço.
+     */
+    static String chave(String texto) {
+        return String.join(" ", TextNormalizer.termos(texto));
+    }
+
+    @Schema(description = "Sugestão de autocompletar")
+    public static final class Sugestao {
+
+        @Schema(description = "Tipo do item sugerido", example = "LIVRO")
+        public final Tipo tipo;
+
+        @Schema(description = "Id do item", example = "4")
+        public final Long id;
+
+        @Schema(description = "Título do livro ou nome do autor/editora, como cadastrado", example = "Grande Sertão: Veredas")
+        public final String rotulo;
+
+        final String chave;
+        final boolean inicio;
+
+        Sugestao(Tipo tipo, Long id, String rotulo, String chave, boolean inicio) {
+            this.tipo = tipo;
+            this.id = id;
+            this.rotulo = rotulo;
+            this.chave = chave;
+            this.inicio = inicio;
+        }
+    }
+
+    private static final class Dicionario {
+
+        private final Tipo tipo;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Mapas mapas;
+
+        Dicionario(Tipo tipo) {
+            this.tipo = tipo;
+            this.mapas = new Mapas(tipo);
+        }
+
+        int tamanho() {
+            return mapas.rotulos.size();
+        }
+
+        /**
+         * Troca o conteúdo pelas {@code linhas} (id, rótulo), montado fora do lock em mapas novos.
+         */
+        void substituir(List<Object[]> linhas) {
+            Mapas novos = new Mapas(tipo);
+            for (Object[] linha : linhas) {
+                novos.adicionar((Long) linha[0], (String) linha[1]);
+            }
+            lock.lock();
+            try {
+                mapas = novos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Troca o rótulo do item {@code id}; {@code rotulo} nulo remove o item.
+         */
+        void alterar(Long id, String rotulo) {
+            lock.lock();
+            try {
+                mapas.remover(id);
+                if (rotulo != null) {
+                    mapas.adicionar(id, rotulo);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void sugerir(String prefixo, int limite, List<Sugestao> destino) {
+            Mapas atuais = mapas;
+            Set<Long> vistos = new HashSet<>();
+            coletar(atuais.inicios, prefixo, limite, vistos, destino);
+            if (vistos.size() < limite) {
+                coletar(atuais.palavras, prefixo, limite, vistos, destino);
+            }
+        }
+
+        private static void coletar(NavigableMap<String, Sugestao> mapa, String prefixo, int limite,
+                                    Set<Long> vistos, List<Sugestao> destino) {
+            for (Sugestao sugestao : mapa.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values()) {
+                if (vistos.size() >= limite) {
+                    return;
+                }
+                if (vistos.add(sugestao.id)) {
+                    destino.add(sugestao);
+                }
+            }
+        }
+    }
+
+    private static final class Mapas {
+
+        private final Tipo tipo;
+        private final Map<Long, String> rotulos = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Sugestao> inicios = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Sugestao> palavras = new ConcurrentSkipListMap<>();
+
+        Mapas(Tipo tipo) {
+            this.tipo = tipo;
+        }
+
+        void adicionar(Long id, String rotulo) {
+            String normalizado = chave(rotulo);
+            if (normalizado.isEmpty()) {
+                return;
+            }
+            rotulos.put(id, rotulo);
+            inicios.put(normalizado + FIM_TEXTO + id, new Sugestao(tipo, id, rotulo, normalizado, true));
+            for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+                String sufixo = normalizado.substring(i + 1);
+                palavras.put(sufixo + FIM_TEXTO + id, new Sugestao(tipo, id, rotulo, sufixo, false));
+            }
+        }
+
+        void remover(Long id) {
+            String rotulo = rotulos.remove(id);
+            if (rotulo == null) {
+                return;
+            }
+            String normalizado = chave(rotulo);
+            inicios.remove(normalizado + FIM_TEXTO + id);
+            for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+                palavras.remove(normalizado.substring(i + 1) + FIM_TEXTO + id);
+            }
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 @Entity
+@Cacheable
+@EntityListeners(CatalogChangeListener.class)
 @Schema(description = "Detalhes adicionais de uma editora")
 public class DetalhesEditora extends PanacheEntity {
 
@@ -30,6 +35,10 @@ public class DetalhesEditora extends PanacheEntity {
     @Schema(hidden = true)
     public Editora editora;
 
+    @Version
+    @Schema(hidden = true)
+    public Long version;
+
     public DetalhesEditora() {
     }
 
@@ -1,14 +1,14 @@
 package org.acme;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.ws.rs.core.UriInfo;
-import jakarta.ws.rs.core.UriBuilder;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
-import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
 @Schema(name = "DetalhesEditoraRepresentation", description = "Representação dos detalhes da editora com links HATEOAS")
+@JsonSerialize(using = RepresentationSerializers.DeDetalhes.class)
 public class DetalhesEditoraRepresentation {
 
     public Long id;
@@ -16,13 +16,20 @@ public class DetalhesEditoraRepresentation {
     public String email;
 
     @Schema(name = "_links", description = "Links HATEOAS para a representação dos detalhes da editora")
-    public Map<String, String> _links = new HashMap<>();
+    public Map<String, String> _links = Map.of();
 
     public void addLink(String rel, String href) {
+        if (!(this._links instanceof HashMap)) {
+            this._links = new HashMap<>(this._links);
+        }
         this._links.put(rel, href);
     }
 
     public static DetalhesEditoraRepresentation fromEntity(DetalhesEditora entity, UriInfo uriInfo) {
+        return fromEntity(entity, LinkRenderer.of(uriInfo));
+    }
+
+    public static DetalhesEditoraRepresentation fromEntity(DetalhesEditora entity, LinkRenderer links) {
         if (entity == null) {
             return null;
         }
@@ -32,22 +39,14 @@ public class DetalhesEditoraRepresentation {
         rep.email = entity.email;
 
         if (entity.editora != null && entity.editora.id != null) {
-            UriBuilder baseUri = uriInfo.getBaseUriBuilder()
-                    .path(EditoraResource.class)
-                    .path(entity.editora.id.toString())
-                    .path("detalhes");
-
-            rep.addLink("self", baseUri.build().toString());
-
-            rep.addLink("editora", uriInfo.getBaseUriBuilder()
-                    .path(EditoraResource.class)
-                    .path(entity.editora.id.toString())
-                    .build().toString());
-
-            rep.addLink("update", baseUri.build().toString());
-            rep.addLink("delete", baseUri.build().toString());
+            String self = links.detalhesDaEditora(entity.editora.id);
+            rep._links = Map.of(
+                    "self", self,
+                    "editora", links.editora(entity.editora.id),
+                    "update", self,
+                    "delete", self);
         }
 
         return rep;
     }
-}
\ No newline at end of file
+}
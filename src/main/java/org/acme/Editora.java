@@ -1,11 +1,14 @@
 package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -13,6 +16,8 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import java.util.List;
 
 @Entity
+@Cacheable
+@EntityListeners(CatalogChangeListener.class)
 @Schema(description = "Representa uma editora")
 public class Editora extends PanacheEntity {
 
@@ -34,6 +39,10 @@ public class Editora extends PanacheEntity {
     @Schema(hidden = true)
     public List<Livro> livros;
 
+    @Version
+    @Schema(hidden = true)
+    public Long version;
+
     public Editora() {
     }
 
@@ -0,0 +1,25 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Resultado da exclusão de uma editora com livros")
+public class EditoraBulkDeleteResponse {
+
+    @Schema(description = "Id da editora excluída", example = "3")
+    public Long id;
+
+    @Schema(description = "Política aplicada aos livros da editora", example = "REATRIBUIR")
+    public EditoraBulkDeleter.Politica politica;
+
+    @Schema(description = "Editora que recebeu os livros (só na política reatribuir)", example = "1")
+    public Long destinoId;
+
+    @Schema(description = "Livros desvinculados, reatribuídos ou excluídos")
+    public long livros;
+
+    @Schema(description = "Lotes (transações) executados")
+    public int lotes;
+
+    @Schema(description = "Duração da exclusão em milissegundos")
+    public long duracaoMs;
+}
@@ -0,0 +1,228 @@
+package org.acme;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exclusão de editoras com livros, conforme a {@link Politica}.
+ * <p>
+ * Os livros da editora são tratados em lotes de {@link #TAMANHO_LOTE}, cada um numa transação própria:
+ * uma projeção (com bloqueio das linhas) lê id, título, ISBN, ano, status e editora, e um único comando em massa
+ * desvincula, reatribui ou apaga o lote inteiro (no caso de {@link Politica#CASCATA}, antes as linhas de
+ * {@code Livro_Autor}). Como cada lote tira os livros da editora, o próximo lote é sempre a primeira página da
+ * mesma consulta. Nenhuma entidade é carregada; as alterações de cada lote são registradas em {@link CatalogChanges}
+ * e publicadas depois do commit.
+ * <p>
+ * O andamento aparece nas métricas {@code catalogo.editora.exclusao.livros} (livros tratados, por política,
+ * somados a cada lote) e {@code catalogo.editora.exclusao.pendentes} (livros que ainda faltam nas exclusões em
+ * andamento), e no log quando a editora tem mais de um lote.
+ * <p>
+ * Por fim a editora é excluída pela entidade (com os detalhes, e com os listeners vendo a exclusão). Se um lote
+ * falhar, os anteriores continuam gravados e a editora fica com os livros restantes.
+ */
+@ApplicationScoped
+public class EditoraBulkDeleter {
+
+    private static final Logger LOG = Logger.getLogger(EditoraBulkDeleter.class);
+
+    static final int TAMANHO_LOTE = 500;
+
+    public enum Politica {
+        /** Recusa a exclusão se a editora tiver livros. */
+        RESTRINGIR,
+        /** Mantém os livros, sem editora. */
+        DESVINCULAR,
+        /** Passa os livros para outra editora. */
+        REATRIBUIR,
+        /** Apaga os livros, com as ligações com os autores. */
+        CASCATA
+    }
+
+    @ConfigProperty(name = "catalogo.editora.exclusao.politica", defaultValue = "restringir")
+    String politicaPadrao;
+
+    @Inject
+    CatalogChanges changes;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Politica, Counter> tratados = new EnumMap<>(Politica.class);
+    private final AtomicLong pendentes = new AtomicLong();
+
+    @PostConstruct
+    void registrarMetricas() {
+        for (Politica politica : Politica.values()) {
+            if (politica != Politica.RESTRINGIR) {
+                tratados.put(politica, registry.counter(MetricsConfig.PREFIXO + "editora.exclusao.livros",
+                        "politica", politica.name().toLowerCase(Locale.ROOT)));
+            }
+        }
+        registry.gauge(MetricsConfig.PREFIXO + "editora.exclusao.pendentes", pendentes);
+    }
+
+    /**
+     * Lê a política pedida ({@code null} usa {@code catalogo.editora.exclusao.politica}).
+     */
+    public Politica politica(String nome) {
+        String valor = nome == null || nome.isBlank() ? politicaPadrao : nome;
+        try {
+            return Politica.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException("Política '" + valor.trim() + "' desconhecida: use restringir, desvincular, reatribuir ou cascata.",
+                    Response.Status.BAD_REQUEST);
+        }
+    }
+
+    public EditoraBulkDeleteResponse excluir(Long id, Politica politica, Long destinoId) {
+        if (politica == Politica.REATRIBUIR) {
+            if (destinoId == null || destinoId.equals(id)) {
+                throw new WebApplicationException("Informe em destinoId outra editora para receber os livros.", Response.Status.BAD_REQUEST);
+            }
+        } else if (destinoId != null) {
+            throw new WebApplicationException("destinoId só se aplica à política reatribuir.", Response.Status.BAD_REQUEST);
+        }
+
+        long inicio = System.nanoTime();
+        long total = QuarkusTransaction.requiringNew().call(() -> {
+            if (Editora.findById(id) == null) {
+                throw new WebApplicationException("Editora não encontrada.", Response.Status.NOT_FOUND);
+            }
+            if (destinoId != null && Editora.findById(destinoId) == null) {
+                throw new WebApplicationException("Editora de destino " + destinoId + " não encontrada.", Response.Status.BAD_REQUEST);
+            }
+            return Livro.count("editora.id", id);
+        });
+        if (politica == Politica.RESTRINGIR && total > 0) {
+            throw new WebApplicationException("A editora tem " + total + " livro(s): exclua-os antes ou use politica=desvincular, reatribuir ou cascata.",
+                    Response.Status.CONFLICT);
+        }
+
+        EditoraBulkDeleteResponse response = new EditoraBulkDeleteResponse();
+        response.id = id;
+        response.politica = politica;
+        response.destinoId = destinoId;
+        if (politica != Politica.RESTRINGIR) {
+            // A contagem inicial é uma estimativa: o gauge nunca desce mais do que ela somou.
+            long restantes = total;
+            pendentes.addAndGet(restantes);
+            try {
+                int selecionados;
+                do {
+                    selecionados = executarLote(id, politica, destinoId, response);
+                    long baixa = Math.min(selecionados, restantes);
+                    restantes -= baixa;
+                    pendentes.addAndGet(-baixa);
+                    if (selecionados == TAMANHO_LOTE && total > TAMANHO_LOTE) {
+                        LOG.infof("Exclusão da editora %d (%s): %d de %d livros em %d lotes", id, politica,
+                                response.livros, total, response.lotes);
+                    }
+                } while (selecionados == TAMANHO_LOTE);
+            } finally {
+                pendentes.addAndGet(-restantes);
+            }
+        }
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Editora editora = Editora.findById(id);
+            if (editora == null) {
+                return;
+            }
+            if (Livro.count("editora.id", id) > 0) {
+                // Livros cadastrados na editora enquanto os lotes rodavam.
+                throw new WebApplicationException("A editora recebeu novos livros durante a exclusão; tente de novo.",
+                        Response.Status.CONFLICT);
+            }
+            editora.delete();
+        });
+        response.duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        if (response.lotes > 1) {
+            LOG.infof("Editora %d excluída (%s): %d livros em %d lotes, %d ms", id, politica,
+                    response.livros, response.lotes, response.duracaoMs);
+        }
+        return response;
+    }
+
+    /**
+     * Trata o próximo lote de livros da editora e devolve quantos foram selecionados.
+     */
+    private int executarLote(Long editoraId, Politica politica, Long destinoId, EditoraBulkDeleteResponse response) {
+        int selecionados = QuarkusTransaction.requiringNew().call(() -> {
+            EntityManager em = Livro.getEntityManager();
+            List<Object[]> linhas = em.createQuery("select id, titulo, isbn, anoPublicacao, status, editora.id from Livro"
+                            + " where editora.id = :editoraId order by id", Object[].class)
+                    .setParameter("editoraId", editoraId)
+                    .setMaxResults(TAMANHO_LOTE)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+            if (linhas.isEmpty()) {
+                return 0;
+            }
+
+            List<Long> ids = new ArrayList<>(linhas.size());
+            List<CatalogChange> alteracoes = new ArrayList<>(linhas.size());
+            for (Object[] linha : linhas) {
+                ids.add((Long) linha[0]);
+                LivroSnapshot anterior = new LivroSnapshot((Long) linha[0], (String) linha[1], (String) linha[2],
+                        (Integer) linha[3], (Livro.StatusLivro) linha[4], (Long) linha[5], null);
+                if (politica == Politica.CASCATA) {
+                    alteracoes.add(CatalogChange.livro(CatalogChange.Operacao.EXCLUIDO, anterior, anterior));
+                } else {
+                    LivroSnapshot atual = new LivroSnapshot(anterior.id(), anterior.titulo(), anterior.isbn(),
+                            anterior.anoPublicacao(), anterior.status(), destinoId, null);
+                    alteracoes.add(CatalogChange.livro(CatalogChange.Operacao.ATUALIZADO, atual, anterior));
+                }
+            }
+
+            switch (politica) {
+                case DESVINCULAR -> em.createQuery("update versioned Livro set editora = null where id in :ids")
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+                case REATRIBUIR -> em.createQuery("update versioned Livro set editora = :destino where id in :ids")
+                        .setParameter("destino", em.getReference(Editora.class, destinoId))
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+                case CASCATA -> {
+                    // Livro_Autor não é entidade: sai por SQL, declarando a tabela para o Hibernate
+                    // invalidar só o cache que depende dela (os autores de cada livro).
+                    em.createNativeQuery("delete from Livro_Autor where livros_id in (:ids)")
+                            .unwrap(NativeQuery.class)
+                            .addSynchronizedQuerySpace("Livro_Autor")
+                            .setParameter("ids", ids)
+                            .executeUpdate();
+                    em.createQuery("delete from Livro where id in :ids")
+                            .setParameter("ids", ids)
+                            .executeUpdate();
+                }
+                default -> throw new IllegalStateException("Política sem livros a tratar: " + politica);
+            }
+            alteracoes.forEach(changes::registrar);
+            return ids.size();
+        });
+
+        if (selecionados > 0) {
+            response.livros += selecionados;
+            response.lotes++;
+            tratados.get(politica).increment(selecionados);
+        }
+        return selecionados;
+    }
+}
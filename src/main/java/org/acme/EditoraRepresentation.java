@@ -1,16 +1,14 @@
 package org.acme;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.ws.rs.core.UriInfo;
-import jakarta.ws.rs.core.UriBuilder;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
-import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Schema(name = "EditoraRepresentation", description = "Representação de uma editora com links HATEOAS e detalhes")
+@JsonSerialize(using = RepresentationSerializers.DeEditora.class)
 public class EditoraRepresentation {
 
     public Long id;
@@ -20,13 +18,20 @@ public class EditoraRepresentation {
     public DetalhesEditoraRepresentation detalhes;
 
     @Schema(name = "_links", description = "Links HATEOAS para a representação da editora")
-    public Map<String, String> _links = new HashMap<>();
+    public Map<String, String> _links = Map.of();
 
     public void addLink(String rel, String href) {
+        if (!(this._links instanceof HashMap)) {
+            this._links = new HashMap<>(this._links);
+        }
         this._links.put(rel, href);
     }
 
     public static EditoraRepresentation fromEntity(Editora entity, UriInfo uriInfo) {
+        return fromEntity(entity, LinkRenderer.of(uriInfo));
+    }
+
+    public static EditoraRepresentation fromEntity(Editora entity, LinkRenderer links) {
         if (entity == null) {
             return null;
         }
@@ -36,24 +41,25 @@ public class EditoraRepresentation {
         rep.endereco = entity.endereco;
 
         if (entity.detalhes != null) {
-            rep.detalhes = DetalhesEditoraRepresentation.fromEntity(entity.detalhes, uriInfo);
+            rep.detalhes = DetalhesEditoraRepresentation.fromEntity(entity.detalhes, links);
         }
 
-        UriBuilder baseUri = uriInfo.getBaseUriBuilder().path(EditoraResource.class);
-
-        rep.addLink("self", baseUri.path(entity.id.toString()).build().toString());
-        rep.addLink("all", baseUri.build().toString());
-        rep.addLink("update", baseUri.path(entity.id.toString()).build().toString());
-        rep.addLink("delete", baseUri.path(entity.id.toString()).build().toString());
-
+        String self = links.editora(entity.id);
         if (entity.detalhes != null && entity.detalhes.id != null) {
-            rep.addLink("detalhes", uriInfo.getBaseUriBuilder()
-                    .path(EditoraResource.class)
-                    .path(entity.id.toString())
-                    .path("detalhes")
-                    .build().toString());
+            rep._links = Map.of(
+                    "self", self,
+                    "all", links.editoras(),
+                    "update", self,
+                    "delete", self,
+                    "detalhes", links.detalhesDaEditora(entity.id));
+        } else {
+            rep._links = Map.of(
+                    "self", self,
+                    "all", links.editoras(),
+                    "update", self,
+                    "delete", self);
         }
 
         return rep;
     }
-}
\ No newline at end of file
+}
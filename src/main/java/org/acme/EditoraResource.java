@@ -2,11 +2,16 @@ package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -21,26 +26,39 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.resteasy.reactive.RestQuery;
 
 import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Path("/editoras")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 @Tag(name = "Editoras", description = "Operações relacionadas a editoras")
 public class EditoraResource {
 
     @Context
     UriInfo uriInfo;
 
+    @Inject
+    SearchCountCache countCache;
+
+    @Inject
+    SearchResponseCache searchCache;
+
+    @Inject
+    EditoraBulkDeleter bulkDeleter;
+
     private EditoraRepresentation toRepresentation(Editora editora) {
-        return EditoraRepresentation.fromEntity(editora, uriInfo);
+        return EditoraRepresentation.fromEntity(editora, LinkRenderer.of(uriInfo));
     }
 
     private List<EditoraRepresentation> toRepresentationList(List<Editora> editoras) {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
         return editoras.stream()
-                .map(this::toRepresentation)
+                .map(editora -> EditoraRepresentation.fromEntity(editora, links))
                 .collect(Collectors.toList());
     }
 
@@ -96,14 +114,24 @@ public class EditoraResource {
     @APIResponse(responseCode = "200", description = "Editora encontrada com sucesso",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = EditoraRepresentation.class)))
+    @APIResponse(responseCode = "304", description = "Editora não modificada desde o ETag informado em If-None-Match")
     @APIResponse(responseCode = "404", description = "Editora não encontrada")
-    public Response getEditoraById(@PathParam("id") Long id) {
+    public Response getEditoraById(@PathParam("id") Long id, @Context Request request) {
+        EntityTag tag = EntityTags.editora(id);
+        if (tag == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Editora com ID " + id + " não encontrada.").build();
+        }
+        Response.ResponseBuilder naoModificado = EntityTags.avaliar(request, tag);
+        if (naoModificado != null) {
+            return naoModificado.build();
+        }
+
         Editora editora = Editora.findById(id);
 
         if (editora == null) {
             return Response.status(Response.Status.NOT_FOUND).entity("Editora com ID " + id + " não encontrada.").build();
         }
-        return Response.ok(toRepresentation(editora)).build();
+        return Response.ok(toRepresentation(editora)).tag(EntityTags.editora(editora)).build();
     }
 
     @POST
@@ -150,13 +178,18 @@ public class EditoraResource {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = EditoraRepresentation.class))),
             @APIResponse(responseCode = "400", description = "Dados da editora inválidos"),
-            @APIResponse(responseCode = "404", description = "Editora não encontrada")
+            @APIResponse(responseCode = "404", description = "Editora não encontrada"),
+            @APIResponse(responseCode = "412", description = "A editora foi alterada desde o ETag informado em If-Match")
     })
     @Transactional
-    public Response updateEditora(@PathParam("id") Long id, @Valid EditoraRepresentation editoraRep) {
+    public Response updateEditora(@PathParam("id") Long id, @Valid EditoraRepresentation editoraRep, @Context Request request) {
         return Editora.findByIdOptional(id)
                 .map(panacheEntityBase -> {
                     Editora editora = (Editora) panacheEntityBase;
+                    Response.ResponseBuilder precondicao = EntityTags.avaliar(request, EntityTags.editora(editora));
+                    if (precondicao != null) {
+                        return precondicao.build();
+                    }
                     editora.nome = editoraRep.nome;
                     editora.endereco = editoraRep.endereco;
 
@@ -176,25 +209,45 @@ public class EditoraResource {
                         editora.detalhes = null;
                     }
 
-                    return Response.ok(toRepresentation(editora)).build();
+                    try {
+                        // Força o incremento de versão agora, para que a resposta traga o novo ETag
+                        // e uma alteração concorrente apareça como 412.
+                        Editora.flush();
+                    } catch (OptimisticLockException e) {
+                        return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                    }
+
+                    return Response.ok(toRepresentation(editora)).tag(EntityTags.editora(editora)).build();
                 })
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @DELETE
     @Path("/{id}")
-    @Operation(summary = "Excluir editora", description = "Remove uma editora do sistema")
+    @Operation(summary = "Excluir editora",
+            description = "Remove uma editora do sistema. Os livros dela seguem a política pedida (ou catalogo.editora.exclusao.politica): "
+                    + "restringir recusa a exclusão, desvincular os deixa sem editora, reatribuir os passa para destinoId e cascata os apaga. "
+                    + "Os livros são tratados em lotes, cada um numa transação")
     @APIResponses(value = {
-            @APIResponse(responseCode = "204", description = "Editora excluída com sucesso"),
-            @APIResponse(responseCode = "404", description = "Editora não encontrada")
+            @APIResponse(responseCode = "200", description = "Editora excluída e livros tratados em lotes",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = EditoraBulkDeleteResponse.class))),
+            @APIResponse(responseCode = "204", description = "Editora sem livros excluída com sucesso"),
+            @APIResponse(responseCode = "400", description = "Política desconhecida ou editora de destino inválida"),
+            @APIResponse(responseCode = "404", description = "Editora não encontrada"),
+            @APIResponse(responseCode = "409", description = "Editora com livros na política restringir")
     })
-    @Transactional
-    public Response deleteEditora(@PathParam("id") Long id) {
-        boolean deleted = Editora.deleteById(id);
-        if (deleted) {
-            return Response.noContent().build();
-        } else {
-            return Response.status(Response.Status.NOT_FOUND).build();
+    public Response deleteEditora(
+            @PathParam("id") Long id,
+            @Parameter(description = "O que fazer com os livros da editora: restringir, desvincular, reatribuir ou cascata; padrão: catalogo.editora.exclusao.politica")
+            @RestQuery("politica") String politica,
+            @Parameter(description = "Editora que recebe os livros na política reatribuir")
+            @RestQuery("destinoId") Long destinoId) {
+        try {
+            EditoraBulkDeleteResponse response = bulkDeleter.excluir(id, bulkDeleter.politica(politica), destinoId);
+            return response.livros == 0 ? Response.noContent().build() : Response.ok(response).build();
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
         }
     }
 
@@ -215,10 +268,11 @@ public class EditoraResource {
 
     @GET
     @Path("/search")
-    @Operation(summary = "Busca avançada de editoras", description = "Permite buscar editoras por texto livre em nome, endereço, telefone ou email, com paginação e ordenação.")
+    @Operation(summary = "Busca avançada de editoras", description = "Permite buscar editoras por texto livre em nome, endereço, telefone ou email, com paginação e ordenação. Com o parâmetro after a paginação passa a ser por cursor (keyset).")
     @APIResponse(responseCode = "200", description = "Resultados da busca",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = SearchEditoraResponse.class)))
+    @APIResponse(responseCode = "400", description = "Cursor ou size inválido")
     public Response search(
             @Parameter(description = "Query de busca por nome, endereço, telefone ou email")
             @RestQuery("q") String q,
@@ -228,32 +282,58 @@ public class EditoraResource {
             @RestQuery("direction") @DefaultValue("asc") String direction,
             @Parameter(description = "Número da página (base 1)")
             @RestQuery("page") @DefaultValue("1") int page,
-            @Parameter(description = "Tamanho da página")
-            @RestQuery("size") @DefaultValue("10") int size) {
+            @Parameter(description = "Tamanho da página (1 a " + PaginationMetadata.MAX_PAGE_SIZE + ")")
+            @RestQuery("size") @DefaultValue("10") int size,
+            @Parameter(description = "Cursor opaco da paginação por keyset; vazio inicia a partir do primeiro registro")
+            @RestQuery("after") String after,
+            @Parameter(description = "Contagem do total de registros: exact (padrão; reaproveita o total enquanto não houver escrita), estimate (aceita um total já calculado, mesmo desatualizado) ou none")
+            @RestQuery("count") @DefaultValue("exact") String count) {
+        try {
+            PaginationMetadata.validarTamanho(size);
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
+        String depois = PaginationMetadata.cursor(after, uriInfo);
+        String chave = SearchResponseCache.chave("editoras", uriInfo, q, sort, direction, page, size, depois, count);
+        return searchCache.responder("editoras", chave, () -> pesquisar(q, sort, direction, page, size, depois, count),
+                CatalogChange.Entidade.EDITORA, CatalogChange.Entidade.DETALHES_EDITORA);
+    }
 
+    private Response pesquisar(String q, String sort, String direction, int page, int size, String after, String count) {
         Set<String> allowedSortFields = Set.of("id", "nome", "endereco");
         if (!allowedSortFields.contains(sort)) {
             sort = "id";
         }
 
-        Sort sortObj = Sort.by(
-                sort,
-                "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending
-        );
+        boolean descending = "desc".equalsIgnoreCase(direction);
 
-        int effectivePage = page <= 1 ? 0 : page - 1;
+        StringBuilder filtro = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        if (q != null && !q.isBlank()) {
+            filtro.append("(lower(nome) like :q or lower(endereco) like :q or lower(detalhes.telefone) like :q or lower(detalhes.email) like :q)");
+            params.put("q", "%" + q.toLowerCase() + "%");
+        }
+
+        Long totalElements = countCache.contar(count, "editoras", filtro.toString(), params,
+                () -> filtro.length() == 0 ? Editora.count() : Editora.count(filtro.toString(), params),
+                CatalogChange.Entidade.EDITORA, CatalogChange.Entidade.DETALHES_EDITORA);
 
-        PanacheQuery<Editora> query;
-        if (q == null || q.isBlank()) {
-            query = Editora.findAll(sortObj);
-        } else {
-            String searchTerm = "%" + q.toLowerCase() + "%";
-            query = Editora.find("lower(nome) like ?1 or lower(endereco) like ?1 or lower(detalhes.telefone) like ?1 or lower(detalhes.email) like ?1",
-                    sortObj, searchTerm);
+        if (after != null) {
+            try {
+                return searchCursor(q, sort, direction, descending, size, after, filtro, params, totalElements);
+            } catch (WebApplicationException e) {
+                return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+            }
         }
 
-        long totalElements = query.count();
-        long totalPages = (long) Math.ceil((double) totalElements / size);
+        Sort sortObj = Sort.by(sort, descending ? Sort.Direction.Descending : Sort.Direction.Ascending);
+        int effectivePage = page <= 1 ? 0 : page - 1;
+
+        PanacheQuery<Editora> query = filtro.length() == 0
+                ? Editora.findAll(sortObj)
+                : Editora.find(filtro.toString(), sortObj, params);
+
+        Long totalPages = totalElements != null ? (long) Math.ceil((double) totalElements / size) : null;
 
         List<Editora> editoras = query.page(effectivePage, size).list();
 
@@ -264,6 +344,49 @@ public class EditoraResource {
         return Response.ok(response).build();
     }
 
+    private Response searchCursor(String q, String sort, String direction, boolean descending, int size, String after,
+                                  StringBuilder filtro, Map<String, Object> params, Long totalElements) {
+        if (!after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after, sort);
+            if (filtro.length() > 0) {
+                filtro.append(" and ");
+            }
+            filtro.append(KeysetCursor.predicado(sort, descending));
+            params.put("cursorId", cursor.id);
+            if (!"id".equals(sort)) {
+                params.put("cursorValor", cursor.valor);
+            }
+        }
+
+        Sort sortObj = KeysetCursor.ordenacao(sort, descending);
+        PanacheQuery<Editora> query = filtro.length() == 0
+                ? Editora.findAll(sortObj)
+                : Editora.find(filtro.toString(), sortObj, params);
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar contar.
+        List<Editora> editoras = query.range(0, size).list();
+        String nextCursor = null;
+        if (editoras.size() > size) {
+            editoras = editoras.subList(0, size);
+            Editora ultimo = editoras.get(size - 1);
+            nextCursor = KeysetCursor.encode(sort, valorOrdenacao(ultimo, sort), ultimo.id);
+        }
+
+        SearchEditoraResponse response = SearchEditoraResponse.fromCursor(
+                toRepresentationList(editoras), uriInfo, q, sort, direction, size, totalElements, after, nextCursor
+        );
+
+        return Response.ok(response).build();
+    }
+
+    private static Object valorOrdenacao(Editora editora, String sort) {
+        return switch (sort) {
+            case "nome" -> editora.nome;
+            case "endereco" -> editora.endereco;
+            default -> editora.id;
+        };
+    }
+
     @GET
     @Path("/{editoraId}/detalhes")
     @Operation(summary = "Buscar detalhes da editora por ID", description = "Recupera os detalhes de uma editora específica")
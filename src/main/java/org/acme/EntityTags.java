@@ -0,0 +1,141 @@
+package org.acme;
+
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ETags fortes derivados das colunas de versão.
+ * <p>
+ * A tag cobre tudo que entra na representação: um livro inclui as versões da editora,
+ * dos detalhes da editora e dos autores; uma editora inclui a versão dos detalhes.
+ * Cada tag pode ser calculada a partir da entidade já carregada ou, para responder
+ * {@code If-None-Match} sem montar a representação, com uma consulta que lê só as versões.
+ * <p>
+ * O corpo comprimido com gzip é outra representação e sai com a tag seguida de {@value #SUFIXO_GZIP}
+ * (ver {@link ResponseCompression}); {@link #avaliar} aceita as duas formas nas pré-condições.
+ */
+final class EntityTags {
+
+    static final String SUFIXO_GZIP = "-gzip";
+
+    private EntityTags() {
+    }
+
+    /**
+     * A tag do corpo comprimido com gzip.
+     */
+    static EntityTag comprimida(EntityTag tag) {
+        return new EntityTag(tag.getValue() + SUFIXO_GZIP, tag.isWeak());
+    }
+
+    /**
+     * Como {@link Request#evaluatePreconditions(EntityTag)}, casando {@code If-None-Match} e {@code If-Match}
+     * tanto com {@code tag} quanto com a sua forma comprimida: o cliente pode ter guardado qualquer uma das duas.
+     * O 304 devolve a forma que casou.
+     */
+    static Response.ResponseBuilder avaliar(Request request, EntityTag tag) {
+        Response.ResponseBuilder identidade = request.evaluatePreconditions(tag);
+        if (naoModificado(identidade)) {
+            return identidade;
+        }
+        Response.ResponseBuilder gzip = request.evaluatePreconditions(comprimida(tag));
+        if (naoModificado(gzip)) {
+            return gzip;
+        }
+        // Sem 304: basta uma das formas satisfazer If-Match (ou nenhuma casar com If-None-Match).
+        return identidade == null || gzip == null ? null : identidade;
+    }
+
+    private static boolean naoModificado(Response.ResponseBuilder resposta) {
+        return resposta != null && resposta.clone().build().getStatus() == Response.Status.NOT_MODIFIED.getStatusCode();
+    }
+
+    static EntityTag livro(Long id) {
+        List<Object[]> rows = em().createQuery(
+                        "select l.version, e.id, e.version, d.version, a.id, a.version from Livro l"
+                                + " left join l.editora e left join e.detalhes d left join l.autores a"
+                                + " where l.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] primeira = rows.get(0);
+        Map<Long, Long> autores = new TreeMap<>();
+        for (Object[] row : rows) {
+            if (row[4] != null) {
+                autores.put((Long) row[4], (Long) row[5]);
+            }
+        }
+        return livro(id, (Long) primeira[0], (Long) primeira[1], (Long) primeira[2], (Long) primeira[3], autores);
+    }
+
+    static EntityTag livro(Livro livro) {
+        Map<Long, Long> autores = new TreeMap<>();
+        for (Autor autor : livro.autores) {
+            autores.put(autor.id, autor.version);
+        }
+        Editora editora = livro.editora;
+        return livro(livro.id, livro.version,
+                editora != null ? editora.id : null,
+                editora != null ? editora.version : null,
+                editora != null && editora.detalhes != null ? editora.detalhes.version : null,
+                autores);
+    }
+
+    static EntityTag autor(Long id) {
+        List<Long> versoes = em().createQuery("select a.version from Autor a where a.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return versoes.isEmpty() ? null : tag("autor:" + id + ":" + versoes.get(0));
+    }
+
+    static EntityTag autor(Autor autor) {
+        return tag("autor:" + autor.id + ":" + autor.version);
+    }
+
+    static EntityTag editora(Long id) {
+        List<Object[]> rows = em().createQuery(
+                        "select e.version, d.version from Editora e left join e.detalhes d where e.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultList();
+        return rows.isEmpty() ? null : tag("editora:" + id + ":" + rows.get(0)[0] + ":" + rows.get(0)[1]);
+    }
+
+    static EntityTag editora(Editora editora) {
+        return tag("editora:" + editora.id + ":" + editora.version + ":"
+                + (editora.detalhes != null ? editora.detalhes.version : null));
+    }
+
+    private static EntityTag livro(Long id, Long versao, Long editoraId, Long editoraVersao, Long detalhesVersao,
+                                   Map<Long, Long> autores) {
+        StringBuilder chave = new StringBuilder("livro:").append(id).append(':').append(versao)
+                .append(";editora:").append(editoraId).append(':').append(editoraVersao).append(':').append(detalhesVersao)
+                .append(";autores");
+        autores.forEach((autorId, autorVersao) -> chave.append(':').append(autorId).append('=').append(autorVersao));
+        return tag(chave.toString());
+    }
+
+    private static EntityTag tag(String chave) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+            return new EntityTag(Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static EntityManager em() {
+        return Livro.getEntityManager();
+    }
+}
@@ -0,0 +1,134 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória de ISBN para id do livro.
+ * <p>
+ * Como o ISBN tem sempre 13 dígitos, ele é guardado como {@code long} num {@link LongLongHashMap},
+ * junto com o mapa inverso (id para ISBN) usado para tirar o ISBN antigo quando um livro muda ou é
+ * excluído. A busca é {@code O(1)} e não cria objetos. É carregado na inicialização e mantido pelos
+ * eventos {@link CatalogChange}; a restrição única {@code UK_Livro_isbn} no banco continua sendo a
+ * garantia final contra duplicados gravados ao mesmo tempo.
+ */
+@ApplicationScoped
+public class IsbnIndex {
+
+    private static final Logger LOG = Logger.getLogger(IsbnIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap idPorIsbn = new LongLongHashMap(1024);
+    private final LongLongHashMap isbnPorId = new LongLongHashMap(1024);
+
+    void aoIniciar(@Observes StartupEvent event) {
+        QuarkusTransaction.requiringNew().run(this::reconstruir);
+    }
+
+    void reconstruir() {
+        List<Object[]> linhas = Livro.getEntityManager()
+                .createQuery("select l.id, l.isbn from Livro l", Object[].class)
+                .getResultList();
+        lock.writeLock().lock();
+        try {
+            idPorIsbn.clear();
+            isbnPorId.clear();
+            for (Object[] linha : linhas) {
+                indexar((Long) linha[0], (String) linha[1]);
+            }
+            LOG.infof("Índice de ISBN carregado: %d livros", idPorIsbn.tamanho());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void aoAlterar(@Observes CatalogChange change) {
+        if (change.entidade() != CatalogChange.Entidade.LIVRO) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long anterior = isbnPorId.remove(change.id());
+            if (anterior != LongLongHashMap.AUSENTE && idPorIsbn.get(anterior) == change.id()) {
+                idPorIsbn.remove(anterior);
+            }
+            if (change.operacao() != CatalogChange.Operacao.EXCLUIDO) {
+                indexar(change.id(), change.livro().isbn());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexar(Long id, String isbn) {
+        long chave = chave(isbn);
+        if (chave != LongLongHashMap.AUSENTE) {
+            idPorIsbn.put(chave, id);
+            isbnPorId.put(id, chave);
+        }
+    }
+
+    /**
+     * Id do livro com o ISBN, ou {@code null}. ISBNs que não têm 13 dígitos nunca são encontrados.
+     */
+    public Long buscar(String isbn) {
+        long chave = chave(isbn);
+        if (chave == LongLongHashMap.AUSENTE) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            long id = idPorIsbn.get(chave);
+            return id == LongLongHashMap.AUSENTE ? null : id;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recusa com 409 um ISBN que já pertence a outro livro ({@code livroId} nulo na criação).
+     */
+    public void verificarDisponivel(String isbn, Long livroId) {
+        Long existente = buscar(isbn);
+        if (existente != null && !existente.equals(livroId)) {
+            throw new WebApplicationException("ISBN " + isbn + " já cadastrado no livro " + existente + ".", Response.Status.CONFLICT);
+        }
+    }
+
+    /**
+     * Verdadeiro quando a violação veio da restrição única do ISBN (duplicado gravado ao mesmo tempo por outra transação).
+     */
+    static boolean violacaoDoIsbn(ConstraintViolationException e) {
+        return e.getConstraintName() != null
+                && e.getConstraintName().toUpperCase(Locale.ROOT).contains(Livro.UK_ISBN.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * ISBN como número, ou {@link LongLongHashMap#AUSENTE} se não tiver exatamente 13 dígitos.
+     */
+    static long chave(String isbn) {
+        if (isbn == null || isbn.length() != 13) {
+            return LongLongHashMap.AUSENTE;
+        }
+        long valor = 0;
+        for (int i = 0; i < 13; i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return LongLongHashMap.AUSENTE;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
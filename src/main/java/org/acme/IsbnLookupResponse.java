@@ -0,0 +1,16 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Resultado da busca de livros por uma lista de ISBNs")
+public class IsbnLookupResponse {
+
+    @Schema(description = "Livros encontrados, na ordem dos ISBNs pedidos")
+    public List<LivroRepresentation> livros;
+
+    @Schema(description = "ISBNs sem livro cadastrado (ou sem 13 dígitos)")
+    public List<String> naoEncontrados = new ArrayList<>();
+}
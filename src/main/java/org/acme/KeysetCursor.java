@@ -0,0 +1,77 @@
+package org.acme;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco usado na paginação por keyset (seek) dos endpoints de busca.
+ * <p>
+ * O token carrega o campo de ordenação, o valor desse campo no último registro
+ * da página e o id desse registro, que serve de desempate. A próxima página é
+ * obtida com {@code campo > valor or (campo = valor and id > idAnterior)}, sem OFFSET.
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public final String sort;
+    public final long id;
+    public final String valor;
+
+    private KeysetCursor(String sort, long id, String valor) {
+        this.sort = sort;
+        this.id = id;
+        this.valor = valor;
+    }
+
+    public static String encode(String sort, Object valor, Long id) {
+        String raw = sort + "\n" + id + "\n" + (valor == null ? "" : valor.toString());
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o token recebido em {@code after}. Tokens malformados ou gerados para
+     * outro campo de ordenação resultam em 400.
+     */
+    public static KeysetCursor decode(String token, String sort) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            String[] partes = raw.split("\n", 3);
+            if (partes.length != 3 || !partes[0].equals(sort)) {
+                throw new IllegalArgumentException();
+            }
+            return new KeysetCursor(partes[0], Long.parseLong(partes[1]), partes[2]);
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException("Cursor 'after' inválido para a ordenação '" + sort + "'.", Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Predicado HQL que seleciona os registros posteriores ao cursor, usando os
+     * parâmetros nomeados {@code :cursorValor} e {@code :cursorId}.
+     */
+    public static String predicado(String sort, boolean descending) {
+        String op = descending ? "<" : ">";
+        if ("id".equals(sort)) {
+            return "id " + op + " :cursorId";
+        }
+        return "(" + sort + " " + op + " :cursorValor or (" + sort + " = :cursorValor and id " + op + " :cursorId))";
+    }
+
+    /**
+     * Ordenação estável para o keyset: o campo pedido seguido do id na mesma direção.
+     */
+    public static Sort ordenacao(String sort, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.Descending : Sort.Direction.Ascending;
+        Sort sortObj = Sort.by(sort, direction);
+        if (!"id".equals(sort)) {
+            sortObj = sortObj.and("id", direction);
+        }
+        return sortObj;
+    }
+}
@@ -0,0 +1,66 @@
+package org.acme;
+
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * Monta os links HATEOAS das representações a partir de prefixos calculados uma única vez.
+ * <p>
+ * Cada resource cria um renderer por requisição (a URI base só é resolvida aí) e o repassa
+ * para os {@code fromEntity}; cada link passa a ser uma concatenação de strings em vez de
+ * uma cadeia de {@code UriBuilder} e um {@code URI} por link.
+ */
+public final class LinkRenderer {
+
+    private final String livros;
+    private final String autores;
+    private final String editoras;
+    private final String livrosPorAutor;
+
+    public LinkRenderer(String baseUri) {
+        String base = baseUri.endsWith("/") ? baseUri : baseUri + "/";
+        this.livros = base + "livros";
+        this.autores = base + "autores";
+        this.editoras = base + "editoras";
+        this.livrosPorAutor = base + "livros/search?autorId=";
+    }
+
+    public static LinkRenderer of(UriInfo uriInfo) {
+        return new LinkRenderer(uriInfo.getBaseUri().toString());
+    }
+
+    public String livros() {
+        return livros;
+    }
+
+    public String livro(Long id) {
+        return livros + "/" + id;
+    }
+
+    public String autoresDoLivro(Long livroId) {
+        return livros + "/" + livroId + "/autores";
+    }
+
+    public String autores() {
+        return autores;
+    }
+
+    public String autor(Long id) {
+        return autores + "/" + id;
+    }
+
+    public String livrosDoAutor(Long autorId) {
+        return livrosPorAutor + autorId;
+    }
+
+    public String editoras() {
+        return editoras;
+    }
+
+    public String editora(Long id) {
+        return editoras + "/" + id;
+    }
+
+    public String detalhesDaEditora(Long editoraId) {
+        return editoras + "/" + editoraId + "/detalhes";
+    }
+}
@@ -1,12 +1,24 @@
 package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -14,14 +26,48 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Livro.UK_ISBN, columnNames = "isbn"),
+        indexes = @Index(name = "IX_Livro_editora", columnList = "editora_id, id"))
+@EntityListeners(CatalogChangeListener.class)
+@NamedEntityGraph(
+        name = Livro.GRAFO_REPRESENTACAO,
+        attributeNodes = {
+                @NamedAttributeNode("autores"),
+                @NamedAttributeNode(value = "editora", subgraph = "editora")
+        },
+        subgraphs = @NamedSubgraph(name = "editora", attributeNodes = @NamedAttributeNode("detalhes"))
+)
 @Schema(description = "Representa um livro no acervo da biblioteca")
 public class Livro extends PanacheEntity {
 
+    /**
+     * Grafo com tudo que {@link LivroRepresentation#fromEntity} percorre: autores, editora e detalhes da editora.
+     */
+    public static final String GRAFO_REPRESENTACAO = "Livro.representacao";
+
+    public static final String UK_ISBN = "UK_Livro_isbn";
+
+    /**
+     * Livros de um autor ({@code :autorId}). A subconsulta não é correlacionada: lê só as linhas do autor em
+     * {@code Livro_Autor} pelo índice {@code IX_Livro_Autor_autor}, e o {@code in} é resolvido pela chave primária.
+     */
+    public static final String FILTRO_AUTOR = "id in (select l.id from Livro l join l.autores a where a.id = :autorId)";
+
+    /**
+     * Livros de uma editora ({@code :editoraId}), pelo índice {@code IX_Livro_editora}.
+     */
+    public static final String FILTRO_EDITORA = "editora.id = :editoraId";
+
     @NotBlank(message = "O título do livro é obrigatório")
     @Size(min = 2, max = 100, message = "O título deve ter entre 2 e 100 caracteres")
     @Schema(description = "Título do livro", example = "O Senhor dos Anéis")
@@ -39,9 +85,14 @@ public class Livro extends PanacheEntity {
     public Integer anoPublicacao;
 
     @ManyToMany
+    @JoinTable(name = "Livro_Autor",
+            joinColumns = @JoinColumn(name = "livros_id"),
+            inverseJoinColumns = @JoinColumn(name = "autores_id"),
+            indexes = @Index(name = "IX_Livro_Autor_autor", columnList = "autores_id, livros_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     public List<Autor> autores = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "editora_id")
     public Editora editora;
 
@@ -49,6 +100,16 @@ public class Livro extends PanacheEntity {
     @Schema(description = "Status atual do livro", example = "DISPONIVEL")
     public StatusLivro status = StatusLivro.DISPONIVEL;
 
+    @Version
+    @Schema(hidden = true)
+    public Long version;
+
+    /**
+     * Estado lido do banco, usado para descrever a alteração em {@link CatalogChange}.
+     */
+    @Transient
+    LivroSnapshot estadoCarregado;
+
     public enum StatusLivro {
         DISPONIVEL,
         EMPRESTADO,
@@ -59,6 +120,69 @@ public class Livro extends PanacheEntity {
     public Livro() {
     }
 
+    /**
+     * Aplica o grafo de representação a uma consulta sem paginação, resolvendo
+     * os relacionamentos na mesma instrução SQL.
+     */
+    public static PanacheQuery<Livro> comRelacionamentos(PanacheQuery<Livro> query) {
+        return query.withHint("jakarta.persistence.fetchgraph", getEntityManager().getEntityGraph(GRAFO_REPRESENTACAO));
+    }
+
+    /**
+     * Inicializa os relacionamentos de uma página já carregada com uma única consulta adicional.
+     * Usado nas buscas paginadas, onde buscar coleções junto com LIMIT/OFFSET forçaria a paginação em memória.
+     */
+    public static void carregarRelacionamentos(List<Livro> livros) {
+        if (livros.isEmpty()) {
+            return;
+        }
+        List<Long> ids = livros.stream().map(livro -> livro.id).toList();
+        comRelacionamentos(find("id in ?1", ids)).list();
+    }
+
+    /**
+     * Carrega os livros com os relacionamentos, preservando a ordem de {@code ids}.
+     */
+    public static List<Livro> listarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Livro> porId = new HashMap<>();
+        for (Livro livro : comRelacionamentos(find("id in ?1", ids)).list()) {
+            porId.put(livro.id, livro);
+        }
+        List<Livro> livros = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Livro livro = porId.get(id);
+            if (livro != null) {
+                livros.add(livro);
+            }
+        }
+        return livros;
+    }
+
+    /**
+     * Autores de cada livro de {@code ids} numa única consulta (junção com {@code Livro_Autor}), ordenados por id.
+     * Livros inexistentes ficam fora do mapa; livros sem autores aparecem com a lista vazia.
+     */
+    public static Map<Long, List<Autor>> autoresPorLivro(Collection<Long> ids) {
+        Map<Long, List<Autor>> porLivro = new HashMap<>();
+        if (ids.isEmpty()) {
+            return porLivro;
+        }
+        List<Object[]> linhas = getEntityManager()
+                .createQuery("select l.id, a from Livro l left join l.autores a where l.id in :ids order by l.id, a.id", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+        for (Object[] linha : linhas) {
+            List<Autor> autores = porLivro.computeIfAbsent((Long) linha[0], id -> new ArrayList<>());
+            if (linha[1] != null) {
+                autores.add((Autor) linha[1]);
+            }
+        }
+        return porLivro;
+    }
+
     public Livro(String titulo, String isbn, Integer anoPublicacao, Editora editora) {
         this.titulo = titulo;
         this.isbn = isbn;
@@ -0,0 +1,18 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Autores de uma lista de livros")
+public class LivroAutoresResponse {
+
+    @Schema(description = "Autores de cada livro encontrado, pelo id do livro e na ordem pedida")
+    public Map<Long, List<AutorRepresentation>> autores = new LinkedHashMap<>();
+
+    @Schema(description = "Ids sem livro cadastrado")
+    public List<Long> naoEncontrados = new ArrayList<>();
+}
@@ -0,0 +1,190 @@
+package org.acme;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Carga em lote de livros.
+ * <p>
+ * O corpo (array JSON ou NDJSON) é lido de forma incremental e processado em lotes.
+ * Cada lote resolve editoras e autores referenciados com uma consulta {@code in} por tipo,
+ * grava os livros numa transação própria (com o batching JDBC do Hibernate) e não
+ * afeta os lotes anteriores se falhar. Quando um lote falha no banco, seus itens são
+ * regravados um a um para isolar apenas os itens com problema: um ISBN gravado ao mesmo tempo
+ * por outra requisição vira 409, qualquer outra falha vira 500.
+ */
+@ApplicationScoped
+public class LivroBatchImporter {
+
+    private static final Logger LOG = Logger.getLogger(LivroBatchImporter.class);
+    private static final int TAMANHO_LOTE = 500;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    IsbnIndex isbnIndex;
+
+    public LivroBatchResponse importar(InputStream corpo) {
+        LivroBatchResponse response = new LivroBatchResponse();
+        // readValues(InputStream) desembrulha um array na raiz; sobre um JsonParser já criado, o array seria lido como um item só.
+        try (MappingIterator<LivroRepresentation> itens = objectMapper.readerFor(LivroRepresentation.class).readValues(corpo)) {
+
+            List<Item> lote = new ArrayList<>(TAMANHO_LOTE);
+            int indice = 0;
+            while (itens.hasNextValue()) {
+                lote.add(new Item(indice++, itens.nextValue()));
+                if (lote.size() == TAMANHO_LOTE) {
+                    response.adicionar(gravar(lote));
+                    lote.clear();
+                }
+            }
+            response.adicionar(gravar(lote));
+        } catch (IOException e) {
+            throw new WebApplicationException("Corpo da carga em lote inválido: " + e.getMessage(), Response.Status.BAD_REQUEST);
+        }
+        return response;
+    }
+
+    private List<LivroBatchResult> gravar(List<Item> lote) {
+        if (lote.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> gravarNaTransacao(lote));
+        } catch (RuntimeException e) {
+            LOG.debugf(e, "Lote iniciado no item %d falhou; regravando item a item", lote.get(0).indice);
+            List<LivroBatchResult> resultados = new ArrayList<>(lote.size());
+            for (Item item : lote) {
+                try {
+                    resultados.addAll(QuarkusTransaction.requiringNew().call(() -> gravarNaTransacao(List.of(item))));
+                } catch (RuntimeException falha) {
+                    resultados.add(falhaNoBanco(item, falha));
+                }
+            }
+            return resultados;
+        }
+    }
+
+    private List<LivroBatchResult> gravarNaTransacao(List<Item> lote) {
+        Set<Long> editoraIds = new HashSet<>();
+        Set<Long> autorIds = new HashSet<>();
+        for (Item item : lote) {
+            if (item.rep.editora != null && item.rep.editora.id != null) {
+                editoraIds.add(item.rep.editora.id);
+            }
+            if (item.rep.autores != null) {
+                for (AutorRepresentation autor : item.rep.autores) {
+                    if (autor != null && autor.id != null) {
+                        autorIds.add(autor.id);
+                    }
+                }
+            }
+        }
+        Map<Long, Editora> editoras = editoraIds.isEmpty() ? Map.of()
+                : Editora.<Editora>list("id in ?1", editoraIds).stream().collect(Collectors.toMap(e -> e.id, e -> e));
+        Map<Long, Autor> autores = autorIds.isEmpty() ? Map.of()
+                : Autor.<Autor>list("id in ?1", autorIds).stream().collect(Collectors.toMap(a -> a.id, a -> a));
+
+        List<LivroBatchResult> resultados = new ArrayList<>(lote.size());
+        Map<Livro, Integer> persistidos = new IdentityHashMap<>();
+        Set<String> isbns = new HashSet<>();
+        for (Item item : lote) {
+            try {
+                isbnIndex.verificarDisponivel(item.rep.isbn, null);
+                Livro livro = toEntity(item.rep, editoras, autores);
+                Set<ConstraintViolation<Livro>> violacoes = validator.validate(livro);
+                if (!violacoes.isEmpty()) {
+                    resultados.add(LivroBatchResult.falha(item.indice, 400, violacoes.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "))));
+                    continue;
+                }
+                if (!isbns.add(livro.isbn)) {
+                    throw new WebApplicationException("ISBN " + livro.isbn + " repetido na carga.", Response.Status.CONFLICT);
+                }
+                livro.persist();
+                persistidos.put(livro, item.indice);
+            } catch (WebApplicationException e) {
+                resultados.add(LivroBatchResult.falha(item.indice, e.getResponse().getStatus(), e.getMessage()));
+            }
+        }
+        Livro.flush();
+
+        persistidos.forEach((livro, indice) -> resultados.add(LivroBatchResult.criado(indice, livro.id)));
+        resultados.sort(Comparator.comparingInt(result -> result.indice));
+        return resultados;
+    }
+
+    private static Livro toEntity(LivroRepresentation rep, Map<Long, Editora> editoras, Map<Long, Autor> autores) {
+        Livro livro = new Livro();
+        livro.titulo = rep.titulo;
+        livro.isbn = rep.isbn;
+        livro.anoPublicacao = rep.anoPublicacao;
+        livro.status = rep.status != null ? rep.status : Livro.StatusLivro.DISPONIVEL;
+
+        if (rep.editora != null && rep.editora.id != null) {
+            Editora editora = editoras.get(rep.editora.id);
+            if (editora == null) {
+                throw new WebApplicationException("Editora com ID " + rep.editora.id + " não encontrada.", Response.Status.BAD_REQUEST);
+            }
+            livro.editora = editora;
+        }
+
+        if (rep.autores != null) {
+            for (AutorRepresentation autorRep : rep.autores) {
+                if (autorRep == null || autorRep.id == null) {
+                    throw new WebApplicationException("ID do autor é obrigatório na representação.", Response.Status.BAD_REQUEST);
+                }
+                Autor autor = autores.get(autorRep.id);
+                if (autor == null) {
+                    throw new WebApplicationException("Autor com ID " + autorRep.id + " não encontrado.", Response.Status.BAD_REQUEST);
+                }
+                livro.autores.add(autor);
+            }
+        }
+        return livro;
+    }
+
+    /**
+     * Resultado de um item que falhou sozinho no banco. Só a restrição única do ISBN (outra transação gravou o
+     * mesmo ISBN depois da verificação) é um conflito do cliente; o resto é erro do servidor e vai para o log,
+     * sem expor a mensagem do banco na resposta.
+     */
+    private static LivroBatchResult falhaNoBanco(Item item, RuntimeException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && IsbnIndex.violacaoDoIsbn(violacao)) {
+                return LivroBatchResult.falha(item.indice, 409, "ISBN " + item.rep.isbn + " já cadastrado em outro livro.");
+            }
+        }
+        LOG.errorf(e, "Item %d da carga em lote falhou ao gravar", item.indice);
+        return LivroBatchResult.falha(item.indice, 500, "Erro interno ao gravar o livro.");
+    }
+
+    private record Item(int indice, LivroRepresentation rep) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Resumo da carga em lote de livros, com o resultado de cada item")
+public class LivroBatchResponse {
+
+    public int total;
+    public int criados;
+    public int falhas;
+
+    @Schema(description = "Resultado de cada item, na ordem do corpo da requisição")
+    public List<LivroBatchResult> resultados = new ArrayList<>();
+
+    void adicionar(List<LivroBatchResult> lote) {
+        for (LivroBatchResult result : lote) {
+            resultados.add(result);
+            total++;
+            if (result.status == 201) {
+                criados++;
+            } else {
+                falhas++;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Resultado de um item da carga em lote de livros")
+public class LivroBatchResult {
+
+    @Schema(description = "Posição do item no corpo da requisição (base 0)")
+    public int indice;
+
+    @Schema(description = "Status HTTP equivalente ao resultado do item", example = "201")
+    public int status;
+
+    @Schema(description = "ID do livro criado")
+    public Long id;
+
+    @Schema(description = "Motivo da falha")
+    public String erro;
+
+    public static LivroBatchResult criado(int indice, Long id) {
+        LivroBatchResult result = new LivroBatchResult();
+        result.indice = indice;
+        result.status = 201;
+        result.id = id;
+        return result;
+    }
+
+    public static LivroBatchResult falha(int indice, int status, String erro) {
+        LivroBatchResult result = new LivroBatchResult();
+        result.indice = indice;
+        result.status = status;
+        result.erro = erro;
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package org.acme;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exporta o acervo completo em NDJSON (um {@link LivroRepresentation} por linha).
+ * <p>
+ * Os livros são lidos por um cursor forward-only e processados em lotes: cada lote tem
+ * os relacionamentos carregados com uma consulta, é escrito na resposta e depois o
+ * contexto de persistência é limpo. O consumo de memória depende do tamanho do lote,
+ * não do tamanho do acervo.
+ * <p>
+ * Com {@code fields} só de colunas do livro, o cursor percorre uma projeção e nenhum
+ * relacionamento é carregado; com associações, cada linha é recortada nos campos pedidos.
+ */
+@ApplicationScoped
+public class LivroCatalogExporter {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int TAMANHO_LOTE = 200;
+    private static final byte[] NOVA_LINHA = {'\n'};
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    public StreamingOutput exportar(UriInfo uriInfo, SparseFieldset campos) {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        if (campos == null) {
+            ObjectWriter writer = objectMapper.writerFor(LivroRepresentation.class);
+            return output -> QuarkusTransaction.requiringNew().run(() -> escrever(output, writer, links, null));
+        }
+        ObjectWriter writer = objectMapper.writer();
+        if (campos.projetavel()) {
+            return output -> QuarkusTransaction.requiringNew().run(() -> escreverProjecao(output, writer, links, campos));
+        }
+        return output -> QuarkusTransaction.requiringNew().run(() -> escrever(output, writer, links, campos));
+    }
+
+    private void escreverProjecao(OutputStream output, ObjectWriter writer, LinkRenderer links, SparseFieldset campos) {
+        Session session = Livro.getEntityManager().unwrap(Session.class);
+        List<String> colunas = campos.colunas(LivroRepresentation.colunasDosLinks(campos));
+        String hql = SparseFieldset.hql("Livro", colunas, null, Sort.by("id"));
+        try (ScrollableResults<Object[]> linhas = session.createSelectionQuery(hql, Object[].class)
+                .setReadOnly(true)
+                .setFetchSize(TAMANHO_LOTE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            SparseFieldset.Projecao projecao = new SparseFieldset.Projecao(colunas, List.of());
+            int escritas = 0;
+            while (linhas.next()) {
+                output.write(writer.writeValueAsBytes(LivroRepresentation.fromProjecao(campos, projecao, linhas.get(), links)));
+                output.write(NOVA_LINHA);
+                if (++escritas % TAMANHO_LOTE == 0) {
+                    output.flush();
+                }
+            }
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escrever(OutputStream output, ObjectWriter writer, LinkRenderer links, SparseFieldset campos) {
+        Session session = Livro.getEntityManager().unwrap(Session.class);
+        try (ScrollableResults<Livro> livros = session.createSelectionQuery("from Livro order by id", Livro.class)
+                .setReadOnly(true)
+                .setFetchSize(TAMANHO_LOTE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            List<Livro> lote = new ArrayList<>(TAMANHO_LOTE);
+            while (livros.next()) {
+                lote.add(livros.get());
+                if (lote.size() == TAMANHO_LOTE) {
+                    escreverLote(lote, output, writer, links, campos, session);
+                }
+            }
+            escreverLote(lote, output, writer, links, campos, session);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escreverLote(List<Livro> lote, OutputStream output, ObjectWriter writer, LinkRenderer links,
+                              SparseFieldset campos, Session session) throws IOException {
+        if (lote.isEmpty()) {
+            return;
+        }
+        Livro.carregarRelacionamentos(lote);
+        for (Livro livro : lote) {
+            LivroRepresentation rep = LivroRepresentation.fromEntity(livro, links);
+            output.write(writer.writeValueAsBytes(campos == null ? rep : rep.recortar(campos)));
+            output.write(NOVA_LINHA);
+        }
+        output.flush();
+        lote.clear();
+        session.clear();
+    }
+}
@@ -0,0 +1,212 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores em memória de livros por status e por editora, para responder o resumo do acervo sem consultar o banco.
+ * <p>
+ * São carregados com um {@code group by} na inicialização e depois mantidos pelos eventos
+ * {@link CatalogChange}: criação soma, exclusão subtrai e atualização move o livro entre status ou
+ * editoras comparando o estado anterior com o novo. Cada contador é um {@link AtomicLongArray} indexado
+ * pelo status, de modo que atualizações concorrentes não disputam uma trava.
+ * <p>
+ * {@link #reconciliar()} compara os contadores com o banco e corrige divergências. Os contadores também
+ * são recarregados quando um evento não traz o estado anterior e não dá para saber de onde o livro saiu.
+ * A recarga roda {@linkplain CatalogChanges#entreCommits entre commits}: todo commit que a contagem do banco
+ * enxerga já aplicou seu evento antes dela, e nenhum evento aplicado depois foi contado por ela.
+ */
+@ApplicationScoped
+public class LivroInventory {
+
+    private static final Logger LOG = Logger.getLogger(LivroInventory.class);
+    private static final Livro.StatusLivro[] STATUS = Livro.StatusLivro.values();
+
+    /**
+     * Chave dos livros sem editora (ids gerados começam em 1).
+     */
+    static final long SEM_EDITORA = 0L;
+
+    @Inject
+    CatalogChanges changes;
+
+    private final Map<Long, AtomicLongArray> porEditora = new ConcurrentHashMap<>();
+
+    // Eventos aplicam sob a trava de leitura (concorrentes entre si); a reconciliação troca tudo sob a de escrita.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean desatualizado;
+
+    void aoIniciar(@Observes StartupEvent event) {
+        recarregar();
+    }
+
+    void aoAlterar(@Observes CatalogChange change) {
+        if (change.entidade() != CatalogChange.Entidade.LIVRO) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            switch (change.operacao()) {
+                case CRIADO -> somar(change.livro(), 1);
+                case EXCLUIDO -> somar(change.livroAnterior() != null ? change.livroAnterior() : change.livro(), -1);
+                case ATUALIZADO -> {
+                    LivroSnapshot anterior = change.livroAnterior();
+                    if (anterior == null) {
+                        desatualizado = true;
+                    } else if (anterior.status() != change.livro().status()
+                            || !Objects.equals(anterior.editoraId(), change.livro().editoraId())) {
+                        somar(anterior, -1);
+                        somar(change.livro(), 1);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void somar(LivroSnapshot livro, int delta) {
+        if (livro.status() == null) {
+            return;
+        }
+        porEditora.computeIfAbsent(chave(livro.editoraId()), id -> new AtomicLongArray(STATUS.length))
+                .addAndGet(livro.status().ordinal(), delta);
+    }
+
+    /**
+     * Totais por status (todos os status aparecem, inclusive com zero).
+     */
+    public Map<Livro.StatusLivro, Long> porStatus() {
+        if (desatualizado) {
+            recarregar();
+        }
+        long[] totais = new long[STATUS.length];
+        for (AtomicLongArray contadores : porEditora.values()) {
+            for (int i = 0; i < STATUS.length; i++) {
+                totais[i] += contadores.get(i);
+            }
+        }
+        return paraMapa(totais);
+    }
+
+    /**
+     * Totais por status de cada editora com livros; a chave {@code null} agrupa os livros sem editora.
+     */
+    public Map<Long, Map<Livro.StatusLivro, Long>> porEditora() {
+        if (desatualizado) {
+            recarregar();
+        }
+        Map<Long, Map<Livro.StatusLivro, Long>> resultado = new HashMap<>();
+        porEditora.forEach((editoraId, contadores) -> {
+            long[] totais = new long[STATUS.length];
+            long soma = 0;
+            for (int i = 0; i < STATUS.length; i++) {
+                totais[i] = contadores.get(i);
+                soma += totais[i];
+            }
+            if (soma != 0) {
+                resultado.put(editoraId == SEM_EDITORA ? null : editoraId, paraMapa(totais));
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Recarrega os contadores do banco e devolve as divergências encontradas (vazia quando estavam corretos).
+     */
+    public List<String> reconciliar() {
+        List<String> divergencias = recarregar();
+        if (!divergencias.isEmpty()) {
+            LOG.warnf("Contadores de status divergiam do banco e foram corrigidos: %s", divergencias);
+        }
+        return divergencias;
+    }
+
+    /**
+     * Como {@link #reconciliar()}, sem registrar as divergências; usado quando o banco foi trocado de propósito.
+     */
+    List<String> recarregar() {
+        return changes.entreCommits(this::recarregarEntreCommits);
+    }
+
+    private List<String> recarregarEntreCommits() {
+        lock.writeLock().lock();
+        try {
+            Map<Long, long[]> banco = QuarkusTransaction.requiringNew().call(LivroInventory::contarNoBanco);
+            List<String> divergencias = new ArrayList<>();
+
+            for (Map.Entry<Long, long[]> entry : banco.entrySet()) {
+                AtomicLongArray atual = porEditora.get(entry.getKey());
+                for (int i = 0; i < STATUS.length; i++) {
+                    long memoria = atual != null ? atual.get(i) : 0;
+                    if (memoria != entry.getValue()[i]) {
+                        divergencias.add(descrever(entry.getKey(), STATUS[i], memoria, entry.getValue()[i]));
+                    }
+                }
+            }
+            porEditora.forEach((editoraId, contadores) -> {
+                if (!banco.containsKey(editoraId)) {
+                    for (int i = 0; i < STATUS.length; i++) {
+                        if (contadores.get(i) != 0) {
+                            divergencias.add(descrever(editoraId, STATUS[i], contadores.get(i), 0));
+                        }
+                    }
+                }
+            });
+
+            porEditora.clear();
+            banco.forEach((editoraId, totais) -> porEditora.put(editoraId, new AtomicLongArray(totais)));
+            desatualizado = false;
+            return divergencias;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<Long, long[]> contarNoBanco() {
+        Map<Long, long[]> banco = new HashMap<>();
+        Livro.getEntityManager()
+                .createQuery("select l.status, l.editora.id, count(l) from Livro l group by l.status, l.editora.id", Object[].class)
+                .getResultStream()
+                .forEach(row -> {
+                    if (row[0] != null) {
+                        banco.computeIfAbsent(chave((Long) row[1]), id -> new long[STATUS.length])
+                                [((Livro.StatusLivro) row[0]).ordinal()] = (Long) row[2];
+                    }
+                });
+        return banco;
+    }
+
+    private static long chave(Long editoraId) {
+        return editoraId != null ? editoraId : SEM_EDITORA;
+    }
+
+    private static String descrever(long editoraId, Livro.StatusLivro status, long memoria, long banco) {
+        return (editoraId == SEM_EDITORA ? "sem editora" : "editora " + editoraId) + "/" + status
+                + ": memória " + memoria + ", banco " + banco;
+    }
+
+    private static Map<Livro.StatusLivro, Long> paraMapa(long[] totais) {
+        Map<Livro.StatusLivro, Long> mapa = new EnumMap<>(Livro.StatusLivro.class);
+        for (int i = 0; i < STATUS.length; i++) {
+            mapa.put(STATUS[i], totais[i]);
+        }
+        return mapa;
+    }
+}
@@ -1,15 +1,18 @@
 package org.acme;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.acme.Livro;
 import jakarta.ws.rs.core.UriInfo;
-import jakarta.ws.rs.core.UriBuilder;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
-import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Schema(name = "LivroRepresentation", description = "Representação de um livro com links HATEOAS")
+@JsonSerialize(using = RepresentationSerializers.DeLivro.class)
 public class LivroRepresentation {
 
     public Long id;
@@ -27,7 +30,15 @@ public class LivroRepresentation {
     @Schema(name = "_links", description = "Links HATEOAS para a representação do livro")
     public Links _links;
 
+    static final Set<String> COLUNAS = Set.of("id", "titulo", "isbn", "anoPublicacao", "status");
+    static final Set<String> RELACOES = Set.of("autores", "editora");
+    private static final String COLUNA_EDITORA = "editora.id";
+
     public static LivroRepresentation fromEntity(Livro entity, UriInfo uriInfo) {
+        return fromEntity(entity, LinkRenderer.of(uriInfo));
+    }
+
+    public static LivroRepresentation fromEntity(Livro entity, LinkRenderer links) {
         LivroRepresentation rep = new LivroRepresentation();
         rep.id = entity.id;
         rep.titulo = entity.titulo;
@@ -36,38 +47,88 @@ public class LivroRepresentation {
         rep.status = entity.status;
 
         if (entity.autores != null && !entity.autores.isEmpty()) {
-            rep.autores = entity.autores.stream()
-                    .map(autor -> AutorRepresentation.fromEntity(autor, uriInfo))
-                    .collect(Collectors.toList());
+            rep.autores = new ArrayList<>(entity.autores.size());
+            for (Autor autor : entity.autores) {
+                rep.autores.add(AutorRepresentation.fromEntity(autor, links));
+            }
         }
 
         if (entity.editora != null) {
-            rep.editora = EditoraRepresentation.fromEntity(entity.editora, uriInfo);
+            rep.editora = EditoraRepresentation.fromEntity(entity.editora, links);
         }
 
-        UriBuilder baseUri = uriInfo.getBaseUriBuilder().path("livros");
-        rep._links = new Links();
-        rep._links.self = baseUri.path(entity.id.toString()).build();
-        rep._links.all = baseUri.build();
-        rep._links.update = baseUri.path(entity.id.toString()).build();
-        rep._links.delete = baseUri.path(entity.id.toString()).build();
-        if (entity.editora != null) {
-            rep._links.editora = uriInfo.getBaseUriBuilder().path("editoras").path(entity.editora.id.toString()).build();
+        rep._links = links(entity.id, entity.editora != null ? entity.editora.id : null, links);
+        if (rep.autores != null) {
+            rep._links.autores = links.autoresDoLivro(entity.id);
         }
-        if (entity.autores != null && !entity.autores.isEmpty()) {
-            rep._links.autores = uriInfo.getBaseUriBuilder().path("livros").path(entity.id.toString()).path("autores").build();
+
+        return rep;
+    }
+
+    /**
+     * Representação recortada nos campos de {@code fields}, montada a partir de uma linha da projeção.
+     * O link {@code autores} não entra, pois a projeção não sabe se o livro tem autores.
+     */
+    public static Map<String, Object> fromProjecao(SparseFieldset campos, SparseFieldset.Projecao projecao, Object[] linha,
+                                                   LinkRenderer links) {
+        Map<String, Object> rep = campos.linha(projecao.colunas(), linha);
+        if (campos.contem(SparseFieldset.LINKS)) {
+            rep.put(SparseFieldset.LINKS, links((Long) projecao.valor(linha, "id"), (Long) projecao.valor(linha, COLUNA_EDITORA), links));
         }
+        return rep;
+    }
 
+    /**
+     * Os campos de {@code fields}, na ordem pedida.
+     */
+    public Map<String, Object> recortar(SparseFieldset campos) {
+        Map<String, Object> rep = new LinkedHashMap<>();
+        for (String campo : campos.campos()) {
+            rep.put(campo, switch (campo) {
+                case "id" -> id;
+                case "titulo" -> titulo;
+                case "isbn" -> isbn;
+                case "anoPublicacao" -> anoPublicacao;
+                case "status" -> status;
+                case "autores" -> autores;
+                case "editora" -> editora;
+                default -> _links;
+            });
+        }
         return rep;
     }
 
+    static SparseFieldset campos(String fields) {
+        return SparseFieldset.parse(fields, COLUNAS, RELACOES);
+    }
+
+    /**
+     * Colunas além das pedidas que a projeção precisa ler para montar {@code _links}.
+     */
+    static List<String> colunasDosLinks(SparseFieldset campos) {
+        return campos.contem(SparseFieldset.LINKS) ? List.of(COLUNA_EDITORA) : List.of();
+    }
+
+    private static Links links(Long id, Long editoraId, LinkRenderer links) {
+        String self = links.livro(id);
+        Links result = new Links();
+        result.self = self;
+        result.all = links.livros();
+        result.update = self;
+        result.delete = self;
+        if (editoraId != null) {
+            result.editora = links.editora(editoraId);
+        }
+        return result;
+    }
+
     @Schema(name = "LinksLivro", description = "Coleção de links HATEOAS para Livro")
     public static class Links {
-        public URI self;
-        public URI all;
-        public URI update;
-        public URI delete;
-        public URI editora;
-        public URI autores;
+        public String self;
+        public String all;
+        public String update;
+        public String delete;
+        public String editora;
+        public String autores;
     }
 }
\ No newline at end of file
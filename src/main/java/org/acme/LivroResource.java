@@ -2,11 +2,17 @@ package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -17,32 +23,90 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.hibernate.exception.ConstraintViolationException;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Path("/livros")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 @Tag(name = "Livros", description = "Operações relacionadas a livros")
 public class LivroResource {
 
+    private static final int MAX_ISBNS_LOTE = 1000;
+    private static final int MAX_IDS_LOTE = 1000;
+
+    private static final String FIELDS = "Campos do livro a retornar, separados por vírgula (id, titulo, isbn, anoPublicacao, status, autores, editora, _links). Sem autores e editora, a consulta lê só essas colunas";
+
     @Context
     UriInfo uriInfo;
 
+    @Inject
+    LivroCatalogExporter catalogExporter;
+
+    @Inject
+    LivroSearchIndex searchIndex;
+
+    @Inject
+    LivroBatchImporter batchImporter;
+
+    @Inject
+    SearchCountCache countCache;
+
+    @Inject
+    SearchResponseCache searchCache;
+
+    @Inject
+    LivroInventory inventory;
+
+    @Inject
+    LivroStatusBulkUpdater statusBulkUpdater;
+
+    @Inject
+    IsbnIndex isbnIndex;
+
+    private static Response isbnDuplicado(ConstraintViolationException e, String isbn) {
+        if (!IsbnIndex.violacaoDoIsbn(e)) {
+            throw e;
+        }
+        return Response.status(Response.Status.CONFLICT).entity("ISBN " + isbn + " já cadastrado em outro livro.").build();
+    }
+
     private LivroRepresentation toRepresentation(Livro livro) {
-        return LivroRepresentation.fromEntity(livro, uriInfo);
+        return LivroRepresentation.fromEntity(livro, LinkRenderer.of(uriInfo));
     }
 
     private List<LivroRepresentation> toRepresentationList(List<Livro> livros) {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
         return livros.stream()
-                .map(this::toRepresentation)
+                .map(livro -> LivroRepresentation.fromEntity(livro, links))
                 .collect(Collectors.toList());
     }
 
+    private List<?> toRepresentationList(List<Livro> livros, SparseFieldset campos) {
+        List<LivroRepresentation> representacoes = toRepresentationList(livros);
+        if (campos == null) {
+            return representacoes;
+        }
+        return representacoes.stream().map(rep -> rep.recortar(campos)).toList();
+    }
+
+    private List<Map<String, Object>> toProjectionList(SparseFieldset campos, SparseFieldset.Projecao projecao) {
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        return projecao.linhas().stream()
+                .map(linha -> LivroRepresentation.fromProjecao(campos, projecao, linha, links))
+                .toList();
+    }
+
     private Livro toEntity(LivroRepresentation rep) {
         Livro livro = new Livro();
         livro.titulo = rep.titulo;
@@ -75,12 +139,42 @@ public class LivroResource {
     }
 
     @GET
-    @Operation(summary = "Listar todos os livros", description = "Retorna a lista de todos os livros cadastrados")
+    @Produces({MediaType.APPLICATION_JSON, LivroCatalogExporter.NDJSON})
+    @Operation(summary = "Listar todos os livros", description = "Retorna a lista de todos os livros cadastrados. Com Accept: application/x-ndjson ou stream=true o acervo é enviado em streaming, um livro por linha. Com fields, cada livro traz só os campos pedidos.")
     @APIResponse(responseCode = "200", description = "Lista de livros obtida com sucesso",
-            content = @Content(mediaType = MediaType.APPLICATION_JSON,
-                    schema = @Schema(implementation = LivroRepresentation.class, type = SchemaType.ARRAY)))
-    public List<LivroRepresentation> listarTodos() {
-        return toRepresentationList(Livro.listAll());
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = LivroRepresentation.class, type = SchemaType.ARRAY)),
+                    @Content(mediaType = LivroCatalogExporter.NDJSON,
+                            schema = @Schema(implementation = LivroRepresentation.class))
+            })
+    public Response listarTodos(
+            @Parameter(description = "Envia o acervo em streaming NDJSON")
+            @QueryParam("stream") boolean stream,
+            @Parameter(description = FIELDS)
+            @QueryParam("fields") String fields,
+            @Context HttpHeaders headers) {
+        SparseFieldset campos;
+        try {
+            campos = LivroRepresentation.campos(fields);
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
+
+        if (stream || aceitaNdjson(headers)) {
+            return Response.ok(catalogExporter.exportar(uriInfo, campos), LivroCatalogExporter.NDJSON).build();
+        }
+        if (campos != null && campos.projetavel()) {
+            SparseFieldset.Projecao projecao = campos.projetar("Livro", LivroRepresentation.colunasDosLinks(campos),
+                    null, Map.of(), Sort.by("id"), 0, -1);
+            return Response.ok(toProjectionList(campos, projecao)).build();
+        }
+        return Response.ok(toRepresentationList(Livro.comRelacionamentos(Livro.findAll()).list(), campos)).build();
+    }
+
+    private static boolean aceitaNdjson(HttpHeaders headers) {
+        return headers.getAcceptableMediaTypes().stream()
+                .anyMatch(mediaType -> "application".equals(mediaType.getType()) && "x-ndjson".equals(mediaType.getSubtype()));
     }
 
     @GET
@@ -89,13 +183,128 @@ public class LivroResource {
     @APIResponse(responseCode = "200", description = "Livro encontrado com sucesso",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = LivroRepresentation.class)))
+    @APIResponse(responseCode = "304", description = "Livro não modificado desde o ETag informado em If-None-Match")
     @APIResponse(responseCode = "404", description = "Livro não encontrado")
-    public Response buscarPorId(@PathParam("id") Long id) {
-        return Livro.findByIdOptional(id)
-                .map(livro -> Response.ok(toRepresentation((Livro) livro)).build())
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
+        // Só as versões são lidas para decidir o 304; o grafo completo é carregado apenas se necessário.
+        EntityTag tag = EntityTags.livro(id);
+        if (tag == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        Response.ResponseBuilder naoModificado = EntityTags.avaliar(request, tag);
+        if (naoModificado != null) {
+            return naoModificado.build();
+        }
+        return Livro.comRelacionamentos(Livro.find("id", id)).firstResultOptional()
+                .map(livro -> Response.ok(toRepresentation(livro)).tag(EntityTags.livro(livro)).build())
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
+    @GET
+    @Path("/isbn/{isbn}")
+    @Operation(summary = "Buscar livro por ISBN", description = "Recupera o livro com o ISBN de 13 dígitos, resolvido pelo índice de ISBN em memória")
+    @APIResponse(responseCode = "200", description = "Livro encontrado com sucesso",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = LivroRepresentation.class)))
+    @APIResponse(responseCode = "304", description = "Livro não modificado desde o ETag informado em If-None-Match")
+    @APIResponse(responseCode = "400", description = "ISBN sem 13 dígitos numéricos")
+    @APIResponse(responseCode = "404", description = "Nenhum livro com este ISBN")
+    public Response buscarPorIsbn(@PathParam("isbn") String isbn, @Context Request request) {
+        if (IsbnIndex.chave(isbn) == LongLongHashMap.AUSENTE) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("O ISBN deve conter 13 dígitos numéricos.").build();
+        }
+        Long id = isbnIndex.buscar(isbn);
+        if (id == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return buscarPorId(id, request);
+    }
+
+    @POST
+    @Path("/isbn/batch")
+    @Operation(summary = "Buscar livros por uma lista de ISBNs",
+            description = "Resolve até " + MAX_ISBNS_LOTE + " ISBNs pelo índice em memória e carrega os livros encontrados numa única consulta")
+    @RequestBody(
+            description = "ISBNs a procurar.",
+            required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = String.class, type = SchemaType.ARRAY))
+    )
+    @APIResponse(responseCode = "200", description = "Livros encontrados, na ordem pedida, e ISBNs sem livro",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = IsbnLookupResponse.class)))
+    @APIResponse(responseCode = "400", description = "Lista vazia ou com mais de " + MAX_ISBNS_LOTE + " ISBNs")
+    public Response buscarPorIsbns(List<String> isbns) {
+        if (isbns == null || isbns.isEmpty() || isbns.size() > MAX_ISBNS_LOTE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Informe de 1 a " + MAX_ISBNS_LOTE + " ISBNs.").build();
+        }
+        IsbnLookupResponse response = new IsbnLookupResponse();
+        List<Long> ids = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            Long id = isbnIndex.buscar(isbn);
+            if (id != null) {
+                ids.add(id);
+            } else {
+                response.naoEncontrados.add(isbn);
+            }
+        }
+        response.livros = toRepresentationList(Livro.listarNaOrdem(ids));
+        return Response.ok(response).build();
+    }
+
+    @GET
+    @Path("/{id}/autores")
+    @Operation(summary = "Autores de um livro", description = "Lista os autores do livro, ordenados por id, numa única consulta")
+    @APIResponse(responseCode = "200", description = "Autores do livro (vazia se ele não tiver autores)",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = AutorRepresentation.class, type = SchemaType.ARRAY)))
+    @APIResponse(responseCode = "404", description = "Livro não encontrado")
+    public Response listarAutores(@PathParam("id") Long id) {
+        List<Autor> autores = Livro.autoresPorLivro(List.of(id)).get(id);
+        if (autores == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(toAutorRepresentationList(autores, LinkRenderer.of(uriInfo))).build();
+    }
+
+    @POST
+    @Path("/autores/batch")
+    @Operation(summary = "Autores de uma lista de livros",
+            description = "Autores de até " + MAX_IDS_LOTE + " livros numa única consulta, para completar uma página de livros sem uma chamada por livro")
+    @RequestBody(
+            description = "Ids dos livros.",
+            required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = Long.class, type = SchemaType.ARRAY))
+    )
+    @APIResponse(responseCode = "200", description = "Autores por livro, na ordem pedida, e ids sem livro",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = LivroAutoresResponse.class)))
+    @APIResponse(responseCode = "400", description = "Lista vazia ou com mais de " + MAX_IDS_LOTE + " ids")
+    public Response listarAutoresEmLote(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS_LOTE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Informe de 1 a " + MAX_IDS_LOTE + " ids.").build();
+        }
+        Map<Long, List<Autor>> porLivro = Livro.autoresPorLivro(new LinkedHashSet<>(ids));
+        LinkRenderer links = LinkRenderer.of(uriInfo);
+        LivroAutoresResponse response = new LivroAutoresResponse();
+        for (Long id : ids) {
+            List<Autor> autores = porLivro.get(id);
+            if (autores == null) {
+                response.naoEncontrados.add(id);
+            } else {
+                response.autores.putIfAbsent(id, toAutorRepresentationList(autores, links));
+            }
+        }
+        return Response.ok(response).build();
+    }
+
+    private static List<AutorRepresentation> toAutorRepresentationList(List<Autor> autores, LinkRenderer links) {
+        return autores.stream().map(autor -> AutorRepresentation.fromEntity(autor, links)).toList();
+    }
+
     @POST
     @Operation(summary = "Cadastrar novo livro", description = "Adiciona um novo livro ao acervo")
     @RequestBody(
@@ -110,15 +319,46 @@ public class LivroResource {
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = LivroRepresentation.class)))
     @APIResponse(responseCode = "400", description = "Dados do livro inválidos ou entidades relacionadas não encontradas")
+    @APIResponse(responseCode = "409", description = "ISBN já cadastrado em outro livro")
     @Transactional
     public Response criar(@Valid LivroRepresentation livroRep) {
         try {
+            isbnIndex.verificarDisponivel(livroRep.isbn, null);
             Livro livro = toEntity(livroRep);
             livro.persist();
+            Livro.flush();
             URI location = uriInfo.getAbsolutePathBuilder().path(livro.id.toString()).build();
             return Response.created(location).entity(toRepresentation(livro)).build();
         } catch (WebApplicationException e) {
             return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        } catch (ConstraintViolationException e) {
+            return isbnDuplicado(e, livroRep.isbn);
+        }
+    }
+
+    @POST
+    @Path("/batch")
+    @Consumes({MediaType.APPLICATION_JSON, LivroCatalogExporter.NDJSON})
+    @Operation(summary = "Cadastrar livros em lote", description = "Recebe um array JSON ou um stream NDJSON de livros e os grava em lotes. Falhas em um item não desfazem os demais; o resultado de cada item é retornado na ordem do corpo.")
+    @RequestBody(
+            description = "Livros a serem criados, no mesmo formato de POST /livros.",
+            required = true,
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = LivroRepresentation.class, type = SchemaType.ARRAY)),
+                    @Content(mediaType = LivroCatalogExporter.NDJSON,
+                            schema = @Schema(implementation = LivroRepresentation.class))
+            }
+    )
+    @APIResponse(responseCode = "200", description = "Carga processada; consulte o status de cada item",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = LivroBatchResponse.class)))
+    @APIResponse(responseCode = "400", description = "Corpo da requisição malformado")
+    public Response criarEmLote(InputStream corpo) {
+        try {
+            return Response.ok(batchImporter.importar(corpo)).build();
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
         }
     }
 
@@ -138,17 +378,23 @@ public class LivroResource {
                     schema = @Schema(implementation = LivroRepresentation.class)))
     @APIResponse(responseCode = "400", description = "Dados do livro inválidos ou entidades relacionadas não encontradas")
     @APIResponse(responseCode = "404", description = "Livro não encontrado")
+    @APIResponse(responseCode = "409", description = "ISBN já cadastrado em outro livro")
+    @APIResponse(responseCode = "412", description = "O livro foi alterado desde o ETag informado em If-Match")
     @Transactional
-    public Response atualizar(@PathParam("id") Long id, @Valid LivroRepresentation livroRep) {
-        return Livro.findByIdOptional(id)
-                .map(panacheEntityBase -> {
-                    Livro livro = (Livro) panacheEntityBase;
+    public Response atualizar(@PathParam("id") Long id, @Valid LivroRepresentation livroRep, @Context Request request) {
+        return Livro.comRelacionamentos(Livro.find("id", id)).firstResultOptional()
+                .map(livro -> {
+                    Response.ResponseBuilder precondicao = EntityTags.avaliar(request, EntityTags.livro(livro));
+                    if (precondicao != null) {
+                        return precondicao.build();
+                    }
                     livro.titulo = livroRep.titulo;
                     livro.isbn = livroRep.isbn;
                     livro.anoPublicacao = livroRep.anoPublicacao;
                     livro.status = livroRep.status != null ? livroRep.status : livro.status;
 
                     try {
+                        isbnIndex.verificarDisponivel(livroRep.isbn, id);
                         if (livroRep.editora != null && livroRep.editora.id != null) {
                             Editora editora = Editora.findById(livroRep.editora.id);
                             if (editora == null) {
@@ -176,7 +422,17 @@ public class LivroResource {
                         return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
                     }
 
-                    return Response.ok(toRepresentation(livro)).build();
+                    try {
+                        // Força o incremento de versão agora, para que a resposta traga o novo ETag
+                        // e uma alteração concorrente apareça como 412.
+                        Livro.flush();
+                    } catch (OptimisticLockException e) {
+                        return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                    } catch (ConstraintViolationException e) {
+                        return isbnDuplicado(e, livroRep.isbn);
+                    }
+
+                    return Response.ok(toRepresentation(livro)).tag(EntityTags.livro(livro)).build();
                 })
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
@@ -188,8 +444,10 @@ public class LivroResource {
     @APIResponse(responseCode = "404", description = "Livro não encontrado")
     @Transactional
     public Response excluir(@PathParam("id") Long id) {
-        boolean deleted = Livro.deleteById(id);
-        if (deleted) {
+        // Remove pela entidade (e não por DELETE em massa) para que os listeners vejam a exclusão.
+        Livro livro = Livro.findById(id);
+        if (livro != null) {
+            livro.delete();
             return Response.noContent().build();
         } else {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -203,7 +461,29 @@ public class LivroResource {
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = LivroRepresentation.class, type = SchemaType.ARRAY)))
     public List<LivroRepresentation> buscarPorTitulo(@PathParam("titulo") String titulo) {
-        return toRepresentationList(Livro.list("lower(titulo) LIKE ?1", "%" + titulo.toLowerCase() + "%"));
+        return toRepresentationList(Livro.comRelacionamentos(Livro.find("lower(titulo) LIKE ?1", "%" + titulo.toLowerCase() + "%")).list());
+    }
+
+    @GET
+    @Path("/status/summary")
+    @Operation(summary = "Resumo do acervo por status", description = "Quantidade de livros em cada status, mantida em memória sem consultar o banco")
+    @APIResponse(responseCode = "200", description = "Resumo por status",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = StatusSummaryResponse.class)))
+    public StatusSummaryResponse resumoPorStatus(
+            @Parameter(description = "Inclui a quantidade por status de cada editora")
+            @QueryParam("porEditora") @DefaultValue("false") boolean porEditora,
+            @Parameter(description = "Confere os contadores com o banco antes de responder, corrigindo divergências")
+            @QueryParam("verificar") @DefaultValue("false") boolean verificar) {
+        List<String> divergencias = verificar ? inventory.reconciliar() : null;
+        StatusSummaryResponse response = StatusSummaryResponse.from(inventory.porStatus());
+        if (porEditora) {
+            response.comEditoras(inventory.porEditora());
+        }
+        if (divergencias != null) {
+            response.comVerificacao(divergencias);
+        }
+        return response;
     }
 
     @GET
@@ -214,7 +494,30 @@ public class LivroResource {
                     schema = @Schema(implementation = LivroRepresentation.class, type = SchemaType.ARRAY)))
     @APIResponse(responseCode = "400", description = "Status inválido fornecido")
     public List<LivroRepresentation> filtrarPorStatus(@PathParam("status") Livro.StatusLivro status) {
-        return toRepresentationList(Livro.list("status", status));
+        return toRepresentationList(Livro.comRelacionamentos(Livro.find("status", status)).list());
+    }
+
+    @PUT
+    @Path("/status")
+    @Operation(summary = "Atualizar status em massa",
+            description = "Muda o status de todos os livros selecionados pelos ids e/ou pelo filtro, em lotes de "
+                    + LivroStatusBulkUpdater.TAMANHO_LOTE + " livros com um único UPDATE cada, sem carregar as entidades")
+    @RequestBody(
+            description = "Status de destino e critérios de seleção; ao menos um critério é obrigatório.",
+            required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = LivroStatusBulkRequest.class))
+    )
+    @APIResponse(responseCode = "200", description = "Quantidade de livros alterados",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = LivroStatusBulkResponse.class)))
+    @APIResponse(responseCode = "400", description = "Status de destino ausente ou nenhum critério de seleção")
+    public Response atualizarStatusEmMassa(@Valid LivroStatusBulkRequest request) {
+        try {
+            return Response.ok(statusBulkUpdater.atualizar(request)).build();
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
     }
 
     @PUT
@@ -231,60 +534,283 @@ public class LivroResource {
                 .map(panacheEntityBase -> {
                     Livro livro = (Livro) panacheEntityBase;
                     livro.status = novoStatus;
-                    return Response.ok(toRepresentation(livro)).build();
+                    Livro.flush();
+                    return Response.ok(toRepresentation(livro)).tag(EntityTags.livro(livro)).build();
                 })
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @GET
     @Path("/search")
-    @Operation(summary = "Busca avançada de livros", description = "Permite buscar livros por texto livre em título, ISBN, nome do autor ou nome da editora, com paginação e ordenação.")
+    @Operation(summary = "Busca avançada de livros", description = "Permite buscar livros por texto livre em título, ISBN, nome do autor ou nome da editora, filtrar por autor ou editora, com paginação e ordenação (inclusive por relevância). Com o parâmetro after a paginação passa a ser por cursor (keyset).")
     @APIResponse(responseCode = "200", description = "Resultados da busca",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = SearchLivroResponse.class)))
+    @APIResponse(responseCode = "400", description = "Cursor, campo de fields ou size inválido")
     public Response search(
             @Parameter(description = "Query de busca por titulo, ISBN, nome do autor ou nome da editora")
             @QueryParam("q") String q,
-            @Parameter(description = "Campo de ordenação da lista de retorno (ex: id, titulo, anoPublicacao)")
+            @Parameter(description = "Campo de ordenação da lista de retorno (ex: id, titulo, anoPublicacao, relevancia)")
             @QueryParam("sort") @DefaultValue("id") String sort,
             @Parameter(description = "Direção da ordenação (asc/desc)")
             @QueryParam("direction") @DefaultValue("asc") String direction,
             @Parameter(description = "Número da página (base 1)")
             @QueryParam("page") @DefaultValue("1") int page,
-            @Parameter(description = "Tamanho da página")
-            @QueryParam("size") @DefaultValue("10") int size) {
+            @Parameter(description = "Tamanho da página (1 a " + PaginationMetadata.MAX_PAGE_SIZE + ")")
+            @QueryParam("size") @DefaultValue("10") int size,
+            @Parameter(description = "Cursor opaco da paginação por keyset; vazio inicia a partir do primeiro registro")
+            @QueryParam("after") String after,
+            @Parameter(description = "Contagem do total de registros: exact (padrão; reaproveita o total enquanto não houver escrita), estimate (aceita um total já calculado, mesmo desatualizado) ou none")
+            @QueryParam("count") @DefaultValue("exact") String count,
+            @Parameter(description = FIELDS)
+            @QueryParam("fields") String fields,
+            @Parameter(description = "Só livros deste autor; combina com q, ordenação e paginação")
+            @QueryParam("autorId") Long autorId,
+            @Parameter(description = "Só livros desta editora; combina com q, ordenação e paginação")
+            @QueryParam("editoraId") Long editoraId) {
+        try {
+            PaginationMetadata.validarTamanho(size);
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
+        String depois = PaginationMetadata.cursor(after, uriInfo);
+        String chave = SearchResponseCache.chave("livros", uriInfo, q, sort, direction, page, size, depois, count, fields, autorId, editoraId);
+        return searchCache.responder("livros", chave,
+                () -> pesquisar(q, sort, direction, page, size, depois, count, fields, autorId, editoraId),
+                CatalogChange.Entidade.LIVRO, CatalogChange.Entidade.AUTOR,
+                CatalogChange.Entidade.EDITORA, CatalogChange.Entidade.DETALHES_EDITORA);
+    }
+
+    private Response pesquisar(String q, String sort, String direction, int page, int size, String after, String count,
+                               String fields, Long autorId, Long editoraId) {
+        SparseFieldset campos;
+        try {
+            campos = LivroRepresentation.campos(fields);
+        } catch (WebApplicationException e) {
+            return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+        }
 
-        Set<String> allowedSortFields = Set.of("id", "titulo", "isbn", "anoPublicacao", "status");
+        Set<String> allowedSortFields = Set.of("id", "titulo", "isbn", "anoPublicacao", "status", "relevancia");
         if (!allowedSortFields.contains(sort)) {
             sort = "id";
         }
+        boolean descending = "desc".equalsIgnoreCase(direction);
 
-        Sort sortObj = Sort.by(
-                sort,
-                "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending
-        );
+        // O texto livre sempre passa pelo índice: os candidatos já vêm ranqueados e recortados pelos filtros
+        // por autor e editora, e a página sai deles em memória, no modo offset ou cursor.
+        if (q != null && !q.isBlank()) {
+            List<Long> candidatos = searchIndex.buscar(q, autorId, editoraId);
+            if ("relevancia".equals(sort) && after != null) {
+                sort = "id";
+            }
+            return pesquisarNoIndice(candidatos, q, sort, direction, descending, page, size, after, count, campos);
+        }
+        if ("relevancia".equals(sort)) {
+            sort = "id";
+        }
+
+        // Filtros por autor (pela tabela de junção) e por editora (pela chave estrangeira).
+        StringBuilder filtro = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        if (autorId != null) {
+            filtro.append(Livro.FILTRO_AUTOR);
+            params.put("autorId", autorId);
+        }
+        if (editoraId != null) {
+            filtro.append(filtro.length() > 0 ? " and " : "").append(Livro.FILTRO_EDITORA);
+            params.put("editoraId", editoraId);
+        }
+
+        Long totalElements = countCache.contar(count, "livros", filtro.toString(), params,
+                () -> filtro.length() == 0 ? Livro.count() : Livro.count(filtro.toString(), params),
+                CatalogChange.Entidade.LIVRO, CatalogChange.Entidade.AUTOR, CatalogChange.Entidade.EDITORA);
+
+        if (after != null) {
+            try {
+                return searchCursor(q, sort, direction, descending, size, after, filtro, params, totalElements, campos);
+            } catch (WebApplicationException e) {
+                return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+            }
+        }
 
         int effectivePage = page <= 1 ? 0 : page - 1;
+        Long totalPages = totalElements != null ? (long) Math.ceil((double) totalElements / size) : null;
 
-        PanacheQuery<Livro> query;
-        if (q == null || q.isBlank()) {
-            query = Livro.findAll(sortObj);
+        Sort sortObj = Sort.by(sort, descending ? Sort.Direction.Descending : Sort.Direction.Ascending);
+        List<?> livros;
+        if (campos != null && campos.projetavel()) {
+            // Só colunas do livro foram pedidas: a consulta não carrega autores nem editora.
+            SparseFieldset.Projecao projecao = campos.projetar("Livro", LivroRepresentation.colunasDosLinks(campos),
+                    filtro.toString(), params, sortObj, effectivePage * size, size);
+            livros = toProjectionList(campos, projecao);
         } else {
-            String searchTerm = "%" + q.toLowerCase() + "%";
-            query = Livro.find("lower(titulo) like ?1 or lower(isbn) like ?1 or lower(editora.nome) like ?1 or exists (select 1 from Autor a join Livro_Autor la on a.id = la.autores_id where la.livros_id = Livro.id and lower(a.nome) like ?1)",
-                    sortObj,
-                    searchTerm);
+            PanacheQuery<Livro> query = filtro.length() == 0
+                    ? Livro.findAll(sortObj)
+                    : Livro.find(filtro.toString(), sortObj, params);
+            List<Livro> pagina = query.page(effectivePage, size).list();
+            Livro.carregarRelacionamentos(pagina);
+            livros = toRepresentationList(pagina, campos);
         }
 
-        long totalElements = query.count();
-        long totalPages = (long) Math.ceil((double) totalElements / size);
+        SearchLivroResponse response = SearchLivroResponse.from(
+                livros, uriInfo, q, sort, direction, page, size, totalElements, totalPages
+        );
 
-        List<Livro> livros = query.page(effectivePage, size).list();
+        return Response.ok(response).build();
+    }
 
-        SearchLivroResponse response = SearchLivroResponse.from(
-                toRepresentationList(livros), uriInfo, q, sort, direction, page, size, totalElements, totalPages
+    /**
+     * Página de uma busca textual a partir dos candidatos do índice: o índice os ordena (no modo cursor, já sem os que
+     * vêm antes do cursor) e só os ids da página vão ao banco, numa consulta pela chave primária.
+     */
+    private Response pesquisarNoIndice(List<Long> candidatos, String q, String sort, String direction, boolean descending,
+                                       int page, int size, String after, String count, SparseFieldset campos) {
+        Long totalElements = "none".equalsIgnoreCase(count) ? null : (long) candidatos.size();
+
+        List<Long> ordenados;
+        if ("relevancia".equals(sort)) {
+            ordenados = candidatos;
+        } else if (after != null && !after.isBlank()) {
+            try {
+                KeysetCursor cursor = KeysetCursor.decode(after, sort);
+                Object valor = "id".equals(sort) ? null : valorCursor(sort, cursor.valor);
+                ordenados = searchIndex.ordenar(candidatos, sort, descending, cursor.id, valor);
+            } catch (WebApplicationException e) {
+                return Response.status(e.getResponse().getStatus()).entity(e.getMessage()).build();
+            }
+        } else {
+            ordenados = searchIndex.ordenar(candidatos, sort, descending);
+        }
+
+        List<Long> idsDaPagina;
+        if (after != null) {
+            idsDaPagina = ordenados.subList(0, Math.min(size, ordenados.size()));
+        } else {
+            int effectivePage = page <= 1 ? 0 : page - 1;
+            int inicio = (int) Math.min((long) effectivePage * size, ordenados.size());
+            idsDaPagina = ordenados.subList(inicio, Math.min(inicio + size, ordenados.size()));
+        }
+        boolean haMais = after != null && ordenados.size() > size;
+
+        List<?> livros;
+        String nextCursor = null;
+        if (campos != null && campos.projetavel()) {
+            // Só colunas do livro foram pedidas: a consulta não carrega autores nem editora.
+            List<String> extras = new ArrayList<>(LivroRepresentation.colunasDosLinks(campos));
+            if (after != null) {
+                // A coluna de ordenação entra no select para montar o próximo cursor.
+                extras.add(sort);
+            }
+            SparseFieldset.Projecao projecao = idsDaPagina.isEmpty()
+                    ? new SparseFieldset.Projecao(campos.colunas(extras), List.of())
+                    : campos.projetar("Livro", extras, "id in :ids", Map.of("ids", idsDaPagina), null, 0, -1).naOrdem(idsDaPagina);
+            if (haMais && !projecao.linhas().isEmpty()) {
+                Object[] ultimo = projecao.linhas().get(projecao.linhas().size() - 1);
+                nextCursor = KeysetCursor.encode(sort, projecao.valor(ultimo, sort), (Long) projecao.valor(ultimo, "id"));
+            }
+            livros = toProjectionList(campos, projecao);
+        } else {
+            List<Livro> pagina = Livro.listarNaOrdem(idsDaPagina);
+            if (haMais && !pagina.isEmpty()) {
+                Livro ultimo = pagina.get(pagina.size() - 1);
+                nextCursor = KeysetCursor.encode(sort, valorOrdenacao(ultimo, sort), ultimo.id);
+            }
+            livros = toRepresentationList(pagina, campos);
+        }
+
+        if (after != null) {
+            return Response.ok(SearchLivroResponse.fromCursor(livros, uriInfo, q, sort, direction, size, totalElements, nextCursor))
+                    .build();
+        }
+        Long totalPages = totalElements != null ? (long) Math.ceil((double) totalElements / size) : null;
+        return Response.ok(SearchLivroResponse.from(livros, uriInfo, q, sort, direction, page, size, totalElements, totalPages))
+                .build();
+    }
+
+    private Response searchCursor(String q, String sort, String direction, boolean descending, int size, String after,
+                                  StringBuilder filtro, Map<String, Object> params, Long totalElements,
+                                  SparseFieldset campos) {
+        if (!after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after, sort);
+            if (filtro.length() > 0) {
+                filtro.append(" and ");
+            }
+            filtro.append(KeysetCursor.predicado(sort, descending));
+            params.put("cursorId", cursor.id);
+            if (!"id".equals(sort)) {
+                params.put("cursorValor", valorCursor(sort, cursor.valor));
+            }
+        }
+
+        Sort sortObj = KeysetCursor.ordenacao(sort, descending);
+        if (campos != null && campos.projetavel()) {
+            return searchCursorProjetado(q, sort, direction, size, filtro, params, totalElements, campos, sortObj);
+        }
+        PanacheQuery<Livro> query = filtro.length() == 0
+                ? Livro.findAll(sortObj)
+                : Livro.find(filtro.toString(), sortObj, params);
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar contar.
+        List<Livro> livros = query.range(0, size).list();
+        String nextCursor = null;
+        if (livros.size() > size) {
+            livros = livros.subList(0, size);
+            Livro ultimo = livros.get(size - 1);
+            nextCursor = KeysetCursor.encode(sort, valorOrdenacao(ultimo, sort), ultimo.id);
+        }
+        Livro.carregarRelacionamentos(livros);
+
+        SearchLivroResponse response = SearchLivroResponse.fromCursor(
+                toRepresentationList(livros, campos), uriInfo, q, sort, direction, size, totalElements, nextCursor
         );
 
         return Response.ok(response).build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Modo cursor com projeção: a coluna de ordenação entra no select para montar o próximo cursor.
+     */
+    private Response searchCursorProjetado(String q, String sort, String direction, int size, StringBuilder filtro,
+                                           Map<String, Object> params, Long totalElements,
+                                           SparseFieldset campos, Sort sortObj) {
+        List<String> extras = new ArrayList<>(LivroRepresentation.colunasDosLinks(campos));
+        extras.add(sort);
+        SparseFieldset.Projecao projecao = campos.projetar("Livro", extras, filtro.toString(), params, sortObj, 0, size + 1);
+
+        List<Object[]> linhas = projecao.linhas();
+        String nextCursor = null;
+        if (linhas.size() > size) {
+            linhas = linhas.subList(0, size);
+            Object[] ultimo = linhas.get(size - 1);
+            nextCursor = KeysetCursor.encode(sort, projecao.valor(ultimo, sort), (Long) projecao.valor(ultimo, "id"));
+        }
+
+        SearchLivroResponse response = SearchLivroResponse.fromCursor(
+                toProjectionList(campos, new SparseFieldset.Projecao(projecao.colunas(), linhas)),
+                uriInfo, q, sort, direction, size, totalElements, nextCursor
+        );
+        return Response.ok(response).build();
+    }
+
+    private static Object valorOrdenacao(Livro livro, String sort) {
+        return switch (sort) {
+            case "titulo" -> livro.titulo;
+            case "isbn" -> livro.isbn;
+            case "anoPublicacao" -> livro.anoPublicacao;
+            case "status" -> livro.status;
+            default -> livro.id;
+        };
+    }
+
+    private static Object valorCursor(String sort, String valor) {
+        try {
+            return switch (sort) {
+                case "anoPublicacao" -> Integer.valueOf(valor);
+                case "status" -> Livro.StatusLivro.valueOf(valor);
+                default -> valor;
+            };
+        } catch (IllegalArgumentException e) {
+            throw new WebApplicationException("Cursor 'after' inválido para a ordenação '" + sort + "'.", Response.Status.BAD_REQUEST);
+        }
+    }
+}
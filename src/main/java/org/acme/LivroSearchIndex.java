@@ -0,0 +1,362 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória usado pela busca textual de livros.
+ * <p>
+ * Indexa título, ISBN, nome dos autores e nome da editora, e guarda de cada livro os campos que a busca
+ * usa para filtrar (autor e editora) e ordenar (título, ISBN, ano e status) os candidatos sem ir ao banco. Os termos de autores e
+ * editoras ficam em dicionários próprios, ligados aos livros por id, de modo que
+ * renomear um autor não exige reindexar os livros dele. Cada termo da consulta casa
+ * por prefixo, todos os termos precisam casar e a relevância soma os pesos dos campos.
+ * <p>
+ * É reconstruído por completo na inicialização (ou na primeira busca, se ela chegar antes) e na restauração de
+ * um snapshot; fora isso é mantido pelos eventos {@link CatalogChange} publicados após cada commit. Toda busca
+ * textual de livros passa por aqui, em qualquer modo de paginação, para que o mesmo {@code q} encontre sempre
+ * os mesmos livros.
+ */
+@ApplicationScoped
+public class LivroSearchIndex {
+
+    private static final Logger LOG = Logger.getLogger(LivroSearchIndex.class);
+
+    static final int PESO_TITULO = 3;
+    static final int PESO_ISBN = 3;
+    static final int PESO_AUTOR = 2;
+    static final int PESO_EDITORA = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Map<Long, Integer>> termosLivro = new TreeMap<>();
+    private final Map<Long, LivroSnapshot> livros = new HashMap<>();
+
+    private final NavigableMap<String, Set<Long>> termosAutor = new TreeMap<>();
+    private final Map<Long, String> nomesAutor = new HashMap<>();
+    private final Map<Long, Set<Long>> livrosPorAutor = new HashMap<>();
+
+    private final NavigableMap<String, Set<Long>> termosEditora = new TreeMap<>();
+    private final Map<Long, String> nomesEditora = new HashMap<>();
+    private final Map<Long, Set<Long>> livrosPorEditora = new HashMap<>();
+
+    private volatile boolean pronto;
+
+    void aoIniciar(@Observes StartupEvent event) {
+        construirSePreciso();
+    }
+
+    private void construirSePreciso() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (!pronto) {
+                    reconstruir();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Ids dos livros que casam com todos os termos de {@code q}, do mais para o menos relevante
+     * (empates pelo id). Se o índice ainda não estiver pronto, ele é construído antes de responder.
+     */
+    public List<Long> buscar(String q) {
+        return buscar(q, null, null);
+    }
+
+    /**
+     * Como {@link #buscar(String)}, mantendo só os livros do autor {@code autorId} e da editora {@code editoraId}
+     * (quando informados), sem consultar o banco.
+     */
+    public List<Long> buscar(String q, Long autorId, Long editoraId) {
+        if (!pronto) {
+            construirSePreciso();
+        }
+        List<String> termos = TextNormalizer.termos(q);
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> resultado = null;
+            for (String termo : termos) {
+                Map<Long, Integer> pontos = pontuar(termo);
+                if (resultado == null) {
+                    resultado = pontos;
+                } else {
+                    resultado.keySet().retainAll(pontos.keySet());
+                    for (Map.Entry<Long, Integer> entry : resultado.entrySet()) {
+                        entry.setValue(entry.getValue() + pontos.get(entry.getKey()));
+                    }
+                }
+                if (resultado.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (autorId != null) {
+                resultado.keySet().retainAll(livrosPorAutor.getOrDefault(autorId, Set.of()));
+            }
+            if (editoraId != null) {
+                resultado.keySet().retainAll(livrosPorEditora.getOrDefault(editoraId, Set.of()));
+            }
+
+            List<Map.Entry<Long, Integer>> ordenados = new ArrayList<>(resultado.entrySet());
+            ordenados.sort(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ordenados.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@code ids} na ordem de {@code sort} (id, titulo, isbn, anoPublicacao ou status, com o id como desempate), na
+     * mesma ordem que o banco daria; ids que já saíram do índice ficam de fora.
+     */
+    public List<Long> ordenar(List<Long> ids, String sort, boolean descending) {
+        return ordenar(ids, sort, descending, null, null);
+    }
+
+    /**
+     * Como {@link #ordenar(List, String, boolean)}, mantendo só os livros que vêm depois do cursor, ou seja, do livro
+     * {@code cursorId} cujo campo de ordenação valia {@code cursorValor} (já convertido para o tipo do campo).
+     * Com {@code cursorId} nulo, devolve todos.
+     */
+    public List<Long> ordenar(List<Long> ids, String sort, boolean descending, Long cursorId, Object cursorValor) {
+        Comparator<LivroSnapshot> ordem = switch (sort) {
+            case "id" -> Comparator.comparing(LivroSnapshot::id);
+            case "titulo" -> Comparator.comparing(LivroSnapshot::titulo, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "isbn" -> Comparator.comparing(LivroSnapshot::isbn, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "anoPublicacao" -> Comparator.comparing(LivroSnapshot::anoPublicacao, Comparator.nullsFirst(Comparator.naturalOrder()));
+            // O status é gravado pelo nome (EnumType.STRING), e o banco o ordena como texto.
+            case "status" -> Comparator.comparing((LivroSnapshot livro) -> livro.status() != null ? livro.status().name() : null,
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> throw new IllegalArgumentException("Ordenação não suportada pelo índice: " + sort);
+        };
+        ordem = ordem.thenComparing(LivroSnapshot::id);
+        if (descending) {
+            ordem = ordem.reversed();
+        }
+        LivroSnapshot cursor = cursorId != null ? marco(sort, cursorId, cursorValor) : null;
+
+        List<LivroSnapshot> encontrados = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                LivroSnapshot livro = livros.get(id);
+                if (livro != null && (cursor == null || ordem.compare(livro, cursor) > 0)) {
+                    encontrados.add(livro);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        encontrados.sort(ordem);
+        return encontrados.stream().map(LivroSnapshot::id).toList();
+    }
+
+    /**
+     * Livro fictício com só o id e o campo de ordenação, para comparar com o cursor pelo mesmo comparador.
+     */
+    private static LivroSnapshot marco(String sort, Long id, Object valor) {
+        return switch (sort) {
+            case "titulo" -> new LivroSnapshot(id, (String) valor, null, null, null, null, List.of());
+            case "isbn" -> new LivroSnapshot(id, null, (String) valor, null, null, null, List.of());
+            case "anoPublicacao" -> new LivroSnapshot(id, null, null, (Integer) valor, null, null, List.of());
+            case "status" -> new LivroSnapshot(id, null, null, null, (Livro.StatusLivro) valor, null, List.of());
+            default -> new LivroSnapshot(id, null, null, null, null, null, List.of());
+        };
+    }
+
+    private Map<Long, Integer> pontuar(String termo) {
+        Map<Long, Integer> pontos = new HashMap<>();
+        for (Map<Long, Integer> postings : prefixos(termosLivro, termo)) {
+            postings.forEach((livroId, peso) -> pontos.merge(livroId, peso, Integer::sum));
+        }
+        pontuarPorDicionario(pontos, prefixos(termosAutor, termo), livrosPorAutor, PESO_AUTOR);
+        pontuarPorDicionario(pontos, prefixos(termosEditora, termo), livrosPorEditora, PESO_EDITORA);
+        return pontos;
+    }
+
+    private static void pontuarPorDicionario(Map<Long, Integer> pontos, Collection<Set<Long>> encontrados,
+                                             Map<Long, Set<Long>> livrosPorEntidade, int peso) {
+        Set<Long> entidades = new HashSet<>();
+        encontrados.forEach(entidades::addAll);
+        for (Long entidadeId : entidades) {
+            for (Long livroId : livrosPorEntidade.getOrDefault(entidadeId, Set.of())) {
+                pontos.merge(livroId, peso, Integer::sum);
+            }
+        }
+    }
+
+    private static <V> Collection<V> prefixos(NavigableMap<String, V> termos, String prefixo) {
+        return termos.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values();
+    }
+
+    void aoAlterar(@Observes CatalogChange change) {
+        lock.writeLock().lock();
+        try {
+            switch (change.entidade()) {
+                case LIVRO -> {
+                    if (change.operacao() == CatalogChange.Operacao.EXCLUIDO) {
+                        removerLivro(change.id());
+                    } else {
+                        indexarLivro(change.livro());
+                    }
+                }
+                case AUTOR -> {
+                    removerNome(termosAutor, nomesAutor, change.id());
+                    if (change.operacao() != CatalogChange.Operacao.EXCLUIDO) {
+                        indexarNome(termosAutor, nomesAutor, change.id(), change.nome());
+                    }
+                }
+                case EDITORA -> {
+                    removerNome(termosEditora, nomesEditora, change.id());
+                    if (change.operacao() != CatalogChange.Operacao.EXCLUIDO) {
+                        indexarNome(termosEditora, nomesEditora, change.id(), change.nome());
+                    }
+                }
+                default -> {
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void reconstruir() {
+        EntityManager em = Livro.getEntityManager();
+        lock.writeLock().lock();
+        try {
+            termosLivro.clear();
+            livros.clear();
+            termosAutor.clear();
+            nomesAutor.clear();
+            livrosPorAutor.clear();
+            termosEditora.clear();
+            nomesEditora.clear();
+            livrosPorEditora.clear();
+
+            em.createQuery("select a.id, a.nome from Autor a", Object[].class).getResultStream()
+                    .forEach(row -> indexarNome(termosAutor, nomesAutor, (Long) row[0], (String) row[1]));
+            em.createQuery("select e.id, e.nome from Editora e", Object[].class).getResultStream()
+                    .forEach(row -> indexarNome(termosEditora, nomesEditora, (Long) row[0], (String) row[1]));
+
+            Map<Long, List<Long>> autoresPorLivro = new HashMap<>();
+            em.createQuery("select l.id, a.id from Livro l join l.autores a", Object[].class).getResultStream()
+                    .forEach(row -> autoresPorLivro.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]));
+
+            em.createQuery("select l.id, l.titulo, l.isbn, l.anoPublicacao, l.status, e.id from Livro l left join l.editora e",
+                            Object[].class)
+                    .getResultStream()
+                    .forEach(row -> {
+                        Long id = (Long) row[0];
+                        indexarLivro(new LivroSnapshot(id, (String) row[1], (String) row[2], (Integer) row[3],
+                                (Livro.StatusLivro) row[4], (Long) row[5], autoresPorLivro.getOrDefault(id, List.of())));
+                    });
+
+            pronto = true;
+            LOG.infof("Índice de busca de livros reconstruído: %d livros, %d termos", livros.size(), termosLivro.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexarLivro(LivroSnapshot livro) {
+        LivroSnapshot anterior = livros.get(livro.id());
+        if (livro.autorIds() == null) {
+            livro = new LivroSnapshot(livro.id(), livro.titulo(), livro.isbn(), livro.anoPublicacao(), livro.status(), livro.editoraId(),
+                    anterior != null && anterior.autorIds() != null ? anterior.autorIds() : List.of());
+        }
+        removerLivro(livro.id());
+
+        for (String termo : TextNormalizer.termos(livro.titulo())) {
+            termosLivro.computeIfAbsent(termo, t -> new HashMap<>()).merge(livro.id(), PESO_TITULO, Integer::sum);
+        }
+        for (String termo : TextNormalizer.termos(livro.isbn())) {
+            termosLivro.computeIfAbsent(termo, t -> new HashMap<>()).merge(livro.id(), PESO_ISBN, Integer::sum);
+        }
+        for (Long autorId : livro.autorIds()) {
+            livrosPorAutor.computeIfAbsent(autorId, id -> new HashSet<>()).add(livro.id());
+        }
+        if (livro.editoraId() != null) {
+            livrosPorEditora.computeIfAbsent(livro.editoraId(), id -> new HashSet<>()).add(livro.id());
+        }
+        livros.put(livro.id(), livro);
+    }
+
+    private void removerLivro(Long id) {
+        LivroSnapshot anterior = livros.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        removerPostings(anterior.titulo(), id);
+        removerPostings(anterior.isbn(), id);
+        for (Long autorId : anterior.autorIds()) {
+            removerDe(livrosPorAutor, autorId, id);
+        }
+        if (anterior.editoraId() != null) {
+            removerDe(livrosPorEditora, anterior.editoraId(), id);
+        }
+    }
+
+    private void removerPostings(String texto, Long livroId) {
+        for (String termo : TextNormalizer.termos(texto)) {
+            Map<Long, Integer> postings = termosLivro.get(termo);
+            if (postings != null) {
+                postings.remove(livroId);
+                if (postings.isEmpty()) {
+                    termosLivro.remove(termo);
+                }
+            }
+        }
+    }
+
+    private static void indexarNome(NavigableMap<String, Set<Long>> termos, Map<Long, String> nomes, Long id, String nome) {
+        nomes.put(id, nome);
+        for (String termo : TextNormalizer.termos(nome)) {
+            termos.computeIfAbsent(termo, t -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removerNome(NavigableMap<String, Set<Long>> termos, Map<Long, String> nomes, Long id) {
+        String nome = nomes.remove(id);
+        if (nome == null) {
+            return;
+        }
+        for (String termo : TextNormalizer.termos(nome)) {
+            removerDe(termos, termo, id);
+        }
+    }
+
+    private static <K> void removerDe(Map<K, Set<Long>> mapa, K chave, Long id) {
+        Set<Long> ids = mapa.get(chave);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                mapa.remove(chave);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.acme;
+
+import org.hibernate.Hibernate;
+
+import java.util.List;
+
+/**
+ * Cópia imutável dos campos de um {@link Livro} que interessam aos índices em memória.
+ * {@code autorIds} é nulo quando a coleção de autores não foi carregada (e portanto não mudou).
+ */
+public record LivroSnapshot(Long id, String titulo, String isbn, Integer anoPublicacao, Livro.StatusLivro status, Long editoraId,
+                            List<Long> autorIds) {
+
+    public static LivroSnapshot of(Livro livro) {
+        List<Long> autorIds = null;
+        if (livro.autores != null && Hibernate.isInitialized(livro.autores)) {
+            autorIds = livro.autores.stream().map(autor -> autor.id).toList();
+        }
+        return new LivroSnapshot(livro.id, livro.titulo, livro.isbn, livro.anoPublicacao, livro.status,
+                livro.editora != null ? livro.editora.id : null, autorIds);
+    }
+}
@@ -0,0 +1,34 @@
+package org.acme;
+
+import jakarta.validation.constraints.NotNull;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Mudança de status em massa: os livros são escolhidos pelos ids e/ou pelo filtro (critérios combinados com 'e')")
+public class LivroStatusBulkRequest {
+
+    @NotNull(message = "O status de destino é obrigatório")
+    @Schema(description = "Novo status dos livros selecionados", required = true, example = "EM_MANUTENCAO")
+    public Livro.StatusLivro status;
+
+    @Schema(description = "Ids dos livros a alterar", example = "[1, 2, 5]")
+    public List<Long> ids;
+
+    @Schema(description = "Apenas livros desta editora", example = "1")
+    public Long editoraId;
+
+    @Schema(description = "Apenas livros que estão neste status", example = "DISPONIVEL")
+    public Livro.StatusLivro statusAtual;
+
+    @Schema(description = "Apenas livros publicados a partir deste ano", example = "1900")
+    public Integer anoInicio;
+
+    @Schema(description = "Apenas livros publicados até este ano", example = "1960")
+    public Integer anoFim;
+
+    boolean temCriterio() {
+        return (ids != null && !ids.isEmpty()) || editoraId != null || statusAtual != null
+                || anoInicio != null || anoFim != null;
+    }
+}
@@ -0,0 +1,25 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Resultado da mudança de status em massa")
+public class LivroStatusBulkResponse {
+
+    @Schema(description = "Status aplicado", example = "EM_MANUTENCAO")
+    public Livro.StatusLivro status;
+
+    @Schema(description = "Livros que mudaram de status")
+    public long atualizados;
+
+    @Schema(description = "Livros selecionados que já estavam no status pedido")
+    public long inalterados;
+
+    @Schema(description = "Ids informados que não existem ou não atendem ao filtro")
+    public List<Long> naoEncontrados = new ArrayList<>();
+
+    @Schema(description = "Lotes (transações) executados")
+    public int lotes;
+}
@@ -0,0 +1,159 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Mudança de status em massa.
+ * <p>
+ * Os livros são percorridos em lotes pelo id, cada lote numa transação própria: uma projeção
+ * (com bloqueio das linhas) lê só id, título, ISBN, ano, status e editora, e um único
+ * {@code update versioned} troca o status dos que ainda não estão no destino. Nenhuma entidade é
+ * carregada; por isso as alterações de cada lote são registradas manualmente em {@link CatalogChanges},
+ * com o estado anterior lido na projeção, e publicadas depois do commit.
+ * <p>
+ * Se um lote falhar, os anteriores continuam gravados e o erro é propagado.
+ */
+@ApplicationScoped
+public class LivroStatusBulkUpdater {
+
+    static final int TAMANHO_LOTE = 500;
+
+    @Inject
+    CatalogChanges changes;
+
+    public LivroStatusBulkResponse atualizar(LivroStatusBulkRequest request) {
+        if (request == null || request.status == null) {
+            throw new WebApplicationException("O status de destino é obrigatório.", Response.Status.BAD_REQUEST);
+        }
+        if (!request.temCriterio()) {
+            throw new WebApplicationException("Informe ids ou ao menos um filtro (editoraId, statusAtual, anoInicio, anoFim).",
+                    Response.Status.BAD_REQUEST);
+        }
+        if (request.anoInicio != null && request.anoFim != null && request.anoInicio > request.anoFim) {
+            throw new WebApplicationException("anoInicio não pode ser maior que anoFim.", Response.Status.BAD_REQUEST);
+        }
+
+        LivroStatusBulkResponse response = new LivroStatusBulkResponse();
+        response.status = request.status;
+        Filtro filtro = Filtro.de(request);
+
+        if (request.ids != null && !request.ids.isEmpty()) {
+            List<Long> ids = new ArrayList<>(new TreeSet<>(request.ids));
+            for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+                List<Long> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size()));
+                Set<Long> encontrados = executarLote(filtro.comIds(lote), request.status, response);
+                for (Long id : lote) {
+                    if (!encontrados.contains(id)) {
+                        response.naoEncontrados.add(id);
+                    }
+                }
+            }
+        } else {
+            long ultimo = Long.MIN_VALUE;
+            while (true) {
+                Set<Long> encontrados = executarLote(filtro.depoisDe(ultimo), request.status, response);
+                if (encontrados.size() < TAMANHO_LOTE) {
+                    break;
+                }
+                ultimo = encontrados.stream().mapToLong(Long::longValue).max().getAsLong();
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Atualiza um lote e devolve os ids selecionados por ele (alterados ou já no status de destino).
+     */
+    private Set<Long> executarLote(Filtro filtro, Livro.StatusLivro destino, LivroStatusBulkResponse response) {
+        Set<Long> encontrados = QuarkusTransaction.requiringNew().call(() -> {
+            TypedQuery<Object[]> selecao = Livro.getEntityManager()
+                    .createQuery("select id, titulo, isbn, anoPublicacao, status, editora.id from Livro where " + filtro.where
+                            + " order by id", Object[].class)
+                    .setMaxResults(TAMANHO_LOTE)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            filtro.params.forEach(selecao::setParameter);
+
+            Set<Long> selecionados = new HashSet<>();
+            List<Long> alterar = new ArrayList<>();
+            List<CatalogChange> alteracoes = new ArrayList<>();
+            for (Object[] linha : selecao.getResultList()) {
+                Long id = (Long) linha[0];
+                selecionados.add(id);
+                if (linha[4] == destino) {
+                    response.inalterados++;
+                    continue;
+                }
+                alterar.add(id);
+                LivroSnapshot anterior = new LivroSnapshot(id, (String) linha[1], (String) linha[2], (Integer) linha[3],
+                        (Livro.StatusLivro) linha[4], (Long) linha[5], null);
+                LivroSnapshot atual = new LivroSnapshot(id, anterior.titulo(), anterior.isbn(), anterior.anoPublicacao(),
+                        destino, anterior.editoraId(), null);
+                alteracoes.add(CatalogChange.livro(CatalogChange.Operacao.ATUALIZADO, atual, anterior));
+            }
+            if (!alterar.isEmpty()) {
+                response.atualizados += Livro.getEntityManager()
+                        .createQuery("update versioned Livro set status = :status where id in :ids")
+                        .setParameter("status", destino)
+                        .setParameter("ids", alterar)
+                        .executeUpdate();
+            }
+            alteracoes.forEach(changes::registrar);
+            return selecionados;
+        });
+        response.lotes++;
+        return encontrados;
+    }
+
+    private record Filtro(String where, Map<String, Object> params) {
+
+        static Filtro de(LivroStatusBulkRequest request) {
+            List<String> condicoes = new ArrayList<>();
+            Map<String, Object> params = new HashMap<>();
+            if (request.editoraId != null) {
+                condicoes.add("editora.id = :editoraId");
+                params.put("editoraId", request.editoraId);
+            }
+            if (request.statusAtual != null) {
+                condicoes.add("status = :statusAtual");
+                params.put("statusAtual", request.statusAtual);
+            }
+            if (request.anoInicio != null) {
+                condicoes.add("anoPublicacao >= :anoInicio");
+                params.put("anoInicio", request.anoInicio);
+            }
+            if (request.anoFim != null) {
+                condicoes.add("anoPublicacao <= :anoFim");
+                params.put("anoFim", request.anoFim);
+            }
+            return new Filtro(String.join(" and ", condicoes), params);
+        }
+
+        Filtro comIds(List<Long> ids) {
+            return mais("id in :ids", "ids", ids);
+        }
+
+        Filtro depoisDe(long ultimo) {
+            return mais("id > :ultimo", "ultimo", ultimo);
+        }
+
+        private Filtro mais(String condicao, String nome, Object valor) {
+            Map<String, Object> todos = new HashMap<>(params);
+            todos.put(nome, valor);
+            return new Filtro(where.isEmpty() ? condicao : where + " and " + condicao, todos);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.acme;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de {@code long} para {@code long} com endereçamento aberto (sondagem linear), sem objetos por entrada.
+ * <p>
+ * Chaves e valores ficam em dois arrays primitivos; {@code -1} marca posição livre, então só aceita
+ * chaves não negativas. A remoção desloca as entradas seguintes do mesmo agrupamento em vez de deixar
+ * marcas de remoção. Não é thread-safe.
+ */
+final class LongLongHashMap {
+
+    static final long AUSENTE = -1L;
+
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private long[] chaves;
+    private long[] valores;
+    private int tamanho;
+    private int limite;
+
+    LongLongHashMap(int capacidadeEsperada) {
+        alocar(Integer.highestOneBit(Math.max(16, (int) (capacidadeEsperada / CARGA_MAXIMA)) - 1) << 1);
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Valor da chave, ou {@link #AUSENTE}.
+     */
+    long get(long chave) {
+        int mascara = chaves.length - 1;
+        for (int i = indice(chave, mascara); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                return valores[i];
+            }
+            if (atual == AUSENTE) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    /**
+     * Associa o valor à chave e devolve o valor anterior, ou {@link #AUSENTE}.
+     */
+    long put(long chave, long valor) {
+        if (chave < 0) {
+            throw new IllegalArgumentException("Chave negativa: " + chave);
+        }
+        int mascara = chaves.length - 1;
+        int i = indice(chave, mascara);
+        while (chaves[i] != AUSENTE) {
+            if (chaves[i] == chave) {
+                long anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho > limite) {
+            redimensionar();
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Remove a chave e devolve o valor que ela tinha, ou {@link #AUSENTE}.
+     */
+    long remove(long chave) {
+        int mascara = chaves.length - 1;
+        int i = indice(chave, mascara);
+        while (chaves[i] != chave) {
+            if (chaves[i] == AUSENTE) {
+                return AUSENTE;
+            }
+            i = (i + 1) & mascara;
+        }
+        long removido = valores[i];
+        // Puxa para o buraco as entradas seguintes cujo lugar ideal não fica entre o buraco e a posição delas.
+        int livre = i;
+        for (int j = (i + 1) & mascara; chaves[j] != AUSENTE; j = (j + 1) & mascara) {
+            int ideal = indice(chaves[j], mascara);
+            if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                chaves[livre] = chaves[j];
+                valores[livre] = valores[j];
+                livre = j;
+            }
+        }
+        chaves[livre] = AUSENTE;
+        tamanho--;
+        return removido;
+    }
+
+    void clear() {
+        Arrays.fill(chaves, AUSENTE);
+        tamanho = 0;
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        alocar(chaves.length << 1);
+        tamanho = 0;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != AUSENTE) {
+                put(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new long[capacidade];
+        Arrays.fill(chaves, AUSENTE);
+        limite = (int) (capacidade * CARGA_MAXIMA);
+    }
+
+    private static int indice(long chave, int mascara) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
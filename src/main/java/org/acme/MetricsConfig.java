@@ -0,0 +1,37 @@
+package org.acme;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Configuração das métricas expostas em {@code /q/metrics}.
+ * <p>
+ * Os timers HTTP e as métricas do catálogo publicam p50/p95/p99 e os buckets do histograma,
+ * para que os percentis também possam ser agregados entre instâncias no Prometheus.
+ */
+@Singleton
+public class MetricsConfig {
+
+    static final String PREFIXO = "catalogo.";
+
+    @Produces
+    @Singleton
+    public MeterFilter percentis() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().startsWith("http.server.requests") && !id.getName().startsWith(PREFIXO)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
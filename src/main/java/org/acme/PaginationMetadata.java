@@ -1,15 +1,25 @@
 package org.acme;
 
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 @Schema(description = "Metadados da paginação para resultados de busca")
 public class PaginationMetadata {
-    public long totalElements;
-    public long totalPages;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Schema(description = "Total de registros; nulo quando a contagem foi dispensada (count=none)")
+    public Long totalElements;
+    @Schema(description = "Total de páginas; nulo quando a contagem foi dispensada (count=none)")
+    public Long totalPages;
     public int currentPage;
     public int pageSize;
+    @Schema(description = "Cursor opaco da próxima página no modo keyset (parâmetro after)")
+    public String nextCursor;
 
-    public PaginationMetadata(long totalElements, long totalPages, int currentPage, int pageSize) {
+    public PaginationMetadata(Long totalElements, Long totalPages, int currentPage, int pageSize) {
         this.totalElements = totalElements;
         this.totalPages = totalPages;
         this.currentPage = currentPage;
@@ -18,4 +28,24 @@ public class PaginationMetadata {
 
     public PaginationMetadata() {
     }
-}
\ No newline at end of file
+
+    /**
+     * Recusa com 400 um {@code size} fora de 1..{@link #MAX_PAGE_SIZE}, nas páginas por offset e por cursor.
+     */
+    public static void validarTamanho(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new WebApplicationException("O parâmetro size deve estar entre 1 e " + MAX_PAGE_SIZE + ".", Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * O parâmetro {@code after} recebido pelo resource, com {@code after=} vazio (primeira página do modo cursor)
+     * devolvido como {@code ""}: o RESTEasy entrega o valor vazio como nulo, igual à ausência do parâmetro.
+     */
+    public static String cursor(String after, UriInfo uriInfo) {
+        if (after == null && uriInfo.getQueryParameters().containsKey("after")) {
+            return "";
+        }
+        return after;
+    }
+}
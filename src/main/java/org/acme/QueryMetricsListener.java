@@ -0,0 +1,40 @@
+package org.acme;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Listener de sessão do Hibernate que mede cada instrução e lote JDBC e soma em {@link RequestQueryMetrics}.
+ * <p>
+ * Registrado em {@code hibernate.session.events.auto}; o Hibernate cria uma instância por sessão.
+ */
+public class QueryMetricsListener implements SessionEventListener {
+
+    private long inicio;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        registrar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        registrar();
+    }
+
+    private void registrar() {
+        RequestQueryMetrics metrics = RequestQueryMetrics.atual();
+        if (metrics != null) {
+            metrics.registrar(System.nanoTime() - inicio);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.acme;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializadores Jackson escritos à mão para as representações que se repetem em cada item das buscas.
+ * <p>
+ * Escrevem os mesmos campos, na mesma ordem e com os mesmos nulos que o serializador de beans do Jackson,
+ * mas sem introspecção nem acesso reflexivo aos campos, e com os nomes já codificados em
+ * {@link SerializedString} (o gerador copia os bytes prontos em vez de escapar o nome a cada item).
+ * Os {@code _links} saem sempre na mesma ordem de relações, o que também deixa o corpo estável para a compressão.
+ */
+final class RepresentationSerializers {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITULO = new SerializedString("titulo");
+    private static final SerializedString ISBN = new SerializedString("isbn");
+    private static final SerializedString ANO_PUBLICACAO = new SerializedString("anoPublicacao");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString AUTORES = new SerializedString("autores");
+    private static final SerializedString EDITORA = new SerializedString("editora");
+    private static final SerializedString NOME = new SerializedString("nome");
+    private static final SerializedString NACIONALIDADE = new SerializedString("nacionalidade");
+    private static final SerializedString ENDERECO = new SerializedString("endereco");
+    private static final SerializedString DETALHES = new SerializedString("detalhes");
+    private static final SerializedString TELEFONE = new SerializedString("telefone");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString LINKS = new SerializedString("_links");
+
+    private static final SerializedString SELF = new SerializedString("self");
+    private static final SerializedString ALL = new SerializedString("all");
+    private static final SerializedString UPDATE = new SerializedString("update");
+    private static final SerializedString DELETE = new SerializedString("delete");
+
+    /**
+     * Ordem em que as relações conhecidas são escritas; outras relações vêm depois, na ordem do mapa.
+     */
+    private static final List<SerializedString> RELACOES = List.of(SELF, ALL, UPDATE, DELETE, EDITORA, DETALHES,
+            new SerializedString("livros_deste_autor"));
+
+    private RepresentationSerializers() {
+    }
+
+    static final class DeLivro extends StdSerializer<LivroRepresentation> {
+
+        public DeLivro() {
+            super(LivroRepresentation.class);
+        }
+
+        @Override
+        public void serialize(LivroRepresentation livro, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(livro);
+            numero(gen, ID, livro.id);
+            texto(gen, TITULO, livro.titulo);
+            texto(gen, ISBN, livro.isbn);
+            gen.writeFieldName(ANO_PUBLICACAO);
+            if (livro.anoPublicacao == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(livro.anoPublicacao);
+            }
+            texto(gen, STATUS, livro.status != null ? livro.status.name() : null);
+
+            gen.writeFieldName(AUTORES);
+            if (livro.autores == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(livro.autores, livro.autores.size());
+                for (AutorRepresentation autor : livro.autores) {
+                    DeAutor.escrever(autor, gen);
+                }
+                gen.writeEndArray();
+            }
+
+            gen.writeFieldName(EDITORA);
+            DeEditora.escrever(livro.editora, gen);
+
+            gen.writeFieldName(LINKS);
+            LivroRepresentation.Links links = livro._links;
+            if (links == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartObject(links);
+                texto(gen, SELF, links.self);
+                texto(gen, ALL, links.all);
+                texto(gen, UPDATE, links.update);
+                texto(gen, DELETE, links.delete);
+                texto(gen, EDITORA, links.editora);
+                texto(gen, AUTORES, links.autores);
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class DeAutor extends StdSerializer<AutorRepresentation> {
+
+        public DeAutor() {
+            super(AutorRepresentation.class);
+        }
+
+        @Override
+        public void serialize(AutorRepresentation autor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            escrever(autor, gen);
+        }
+
+        static void escrever(AutorRepresentation autor, JsonGenerator gen) throws IOException {
+            if (autor == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject(autor);
+            numero(gen, ID, autor.id);
+            texto(gen, NOME, autor.nome);
+            texto(gen, NACIONALIDADE, autor.nacionalidade);
+            links(gen, autor._links);
+            gen.writeEndObject();
+        }
+    }
+
+    static final class DeEditora extends StdSerializer<EditoraRepresentation> {
+
+        public DeEditora() {
+            super(EditoraRepresentation.class);
+        }
+
+        @Override
+        public void serialize(EditoraRepresentation editora, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            escrever(editora, gen);
+        }
+
+        static void escrever(EditoraRepresentation editora, JsonGenerator gen) throws IOException {
+            if (editora == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject(editora);
+            numero(gen, ID, editora.id);
+            texto(gen, NOME, editora.nome);
+            texto(gen, ENDERECO, editora.endereco);
+            gen.writeFieldName(DETALHES);
+            DeDetalhes.escrever(editora.detalhes, gen);
+            links(gen, editora._links);
+            gen.writeEndObject();
+        }
+    }
+
+    static final class DeDetalhes extends StdSerializer<DetalhesEditoraRepresentation> {
+
+        public DeDetalhes() {
+            super(DetalhesEditoraRepresentation.class);
+        }
+
+        @Override
+        public void serialize(DetalhesEditoraRepresentation detalhes, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            escrever(detalhes, gen);
+        }
+
+        static void escrever(DetalhesEditoraRepresentation detalhes, JsonGenerator gen) throws IOException {
+            if (detalhes == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject(detalhes);
+            numero(gen, ID, detalhes.id);
+            texto(gen, TELEFONE, detalhes.telefone);
+            texto(gen, EMAIL, detalhes.email);
+            links(gen, detalhes._links);
+            gen.writeEndObject();
+        }
+    }
+
+    private static void numero(JsonGenerator gen, SerializableString nome, Long valor) throws IOException {
+        gen.writeFieldName(nome);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor);
+        }
+    }
+
+    private static void texto(JsonGenerator gen, SerializableString nome, String valor) throws IOException {
+        gen.writeFieldName(nome);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(valor);
+        }
+    }
+
+    private static void links(JsonGenerator gen, Map<String, String> links) throws IOException {
+        gen.writeFieldName(LINKS);
+        if (links == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(links);
+        int escritos = 0;
+        for (SerializedString rel : RELACOES) {
+            String href = links.get(rel.getValue());
+            if (href != null) {
+                gen.writeFieldName(rel);
+                gen.writeString(href);
+                escritos++;
+            }
+        }
+        if (escritos < links.size()) {
+            for (Map.Entry<String, String> link : links.entrySet()) {
+                if (RELACOES.stream().noneMatch(rel -> rel.getValue().equals(link.getKey()))) {
+                    gen.writeStringField(link.getKey(), link.getValue());
+                }
+            }
+        }
+        gen.writeEndObject();
+    }
+}
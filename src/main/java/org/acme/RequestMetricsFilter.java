@@ -0,0 +1,42 @@
+package org.acme;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica, por endpoint, quantas instruções SQL cada requisição executou e quanto tempo passou no banco.
+ * <p>
+ * O endpoint é identificado por classe e método do resource, o que mantém a cardinalidade das tags fixa.
+ */
+public class RequestMetricsFilter {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RequestQueryMetrics queryMetrics;
+
+    @ServerResponseFilter
+    public void registrar(ResourceInfo resourceInfo) {
+        if (resourceInfo.getResourceMethod() == null) {
+            return;
+        }
+        String endpoint = resourceInfo.getResourceClass().getSimpleName() + "." + resourceInfo.getResourceMethod().getName();
+        DistributionSummary.builder(MetricsConfig.PREFIXO + "requisicao.consultas")
+                .description("Instruções SQL executadas por requisição")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(queryMetrics.getConsultas());
+        Timer.builder(MetricsConfig.PREFIXO + "requisicao.tempo.banco")
+                .description("Tempo gasto em instruções SQL por requisição")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(queryMetrics.getNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,42 @@
+package org.acme;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Acumula as instruções JDBC executadas durante uma requisição HTTP.
+ * <p>
+ * É alimentado por {@link QueryMetricsListener} e lido por {@link RequestMetricsFilter} ao fim da requisição.
+ */
+@RequestScoped
+public class RequestQueryMetrics {
+
+    private int consultas;
+    private long nanos;
+
+    void registrar(long duracaoNanos) {
+        consultas++;
+        nanos += duracaoNanos;
+    }
+
+    public int getConsultas() {
+        return consultas;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * O acumulador da requisição corrente, ou {@code null} fora de uma requisição
+     * (inicialização, tarefas em segundo plano, benchmarks sem contêiner).
+     */
+    static RequestQueryMetrics atual() {
+        ArcContainer container = Arc.container();
+        if (container == null || !container.requestContext().isActive()) {
+            return null;
+        }
+        return container.instance(RequestQueryMetrics.class).get();
+    }
+}
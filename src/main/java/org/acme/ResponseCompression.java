@@ -0,0 +1,226 @@
+package org.acme;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.Providers;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressão gzip negociada das respostas JSON acima de um tamanho mínimo.
+ * <p>
+ * O corpo é serializado num buffer pelo writer JSON; se o cliente aceita gzip ({@code Accept-Encoding}) e o
+ * corpo tem pelo menos {@code catalogo.compressao.limite} bytes, ele é comprimido e enviado com
+ * {@code Content-Encoding: gzip} e, se houver um {@code ETag} forte, com a tag seguida de
+ * {@value EntityTags#SUFIXO_GZIP}.
+ * Corpos menores vão como estão, pois o cabeçalho e o custo de CPU do gzip não compensam. Os streams
+ * NDJSON da exportação não passam por aqui, para continuarem saindo aos poucos.
+ * <p>
+ * O nível padrão ({@code catalogo.compressao.nivel=1}) deixa uma página de busca com menos de um décimo
+ * do tamanho, a um custo de CPU da ordem da própria serialização; o nível 6 só reduz mais uns 2% do
+ * original e custa de duas a quatro vezes mais.
+ * <p>
+ * Registra {@code catalogo.resposta.bytes.json} (JSON serializado), {@code catalogo.resposta.bytes}
+ * (como enviado, por codificação) e {@code catalogo.resposta.compressao} (tempo gasto comprimindo).
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class ResponseCompression implements WriterInterceptor {
+
+    static final String GZIP = "gzip";
+
+    @ConfigProperty(name = "catalogo.compressao.limite", defaultValue = "1024")
+    int limite;
+
+    @ConfigProperty(name = "catalogo.compressao.nivel", defaultValue = "1")
+    int nivel;
+
+    @ConfigProperty(name = "catalogo.compressao.enabled", defaultValue = "true")
+    boolean habilitada;
+
+    @Context
+    HttpHeaders requestHeaders;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Context
+    Providers providers;
+
+    @Inject
+    MeterRegistry registry;
+
+    private DistributionSummary bytesJson;
+    private DistributionSummary bytesIdentidade;
+    private DistributionSummary bytesGzip;
+    private Timer compressao;
+
+    @PostConstruct
+    void registrarMetricas() {
+        bytesJson = DistributionSummary.builder(MetricsConfig.PREFIXO + "resposta.bytes.json")
+                .description("Tamanho do JSON serializado, antes de uma eventual compressão")
+                .baseUnit("bytes")
+                .register(registry);
+        bytesIdentidade = tamanho("identidade");
+        bytesGzip = tamanho(GZIP);
+        compressao = Timer.builder(MetricsConfig.PREFIXO + "resposta.compressao")
+                .description("Tempo gasto comprimindo respostas com gzip")
+                .register(registry);
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!habilitada || !MediaType.APPLICATION_JSON_TYPE.isCompatible(tipo(context))
+                || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+
+        MediaType tipo = tipo(context);
+        @SuppressWarnings("unchecked")
+        MessageBodyWriter<Object> writer = (MessageBodyWriter<Object>) providers.getMessageBodyWriter(
+                context.getType(), context.getGenericType(), context.getAnnotations(), tipo);
+        if (writer == null) {
+            context.proceed();
+            return;
+        }
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream(4096);
+        writer.writeTo(context.getEntity(), context.getType(), context.getGenericType(), context.getAnnotations(),
+                tipo, context.getHeaders(), corpo);
+
+        context.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        bytesJson.record(corpo.size());
+        if (corpo.size() < limite || !aceitaGzip()) {
+            bytesIdentidade.record(corpo.size());
+            enviar(context, tipo, corpo.toByteArray());
+            return;
+        }
+
+        Timer.Sample inicio = Timer.start(registry);
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(Math.max(512, corpo.size() / 4));
+        try (GZIPOutputStream gzip = gzip(comprimido, nivel)) {
+            corpo.writeTo(gzip);
+        }
+        inicio.stop(compressao);
+        bytesGzip.record(comprimido.size());
+
+        context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+        EntityTag etag = etag(context);
+        if (etag != null && !etag.isWeak()) {
+            // Um validador forte vale para um corpo byte a byte: o comprimido precisa de outra tag.
+            context.getHeaders().putSingle(HttpHeaders.ETAG, EntityTags.comprimida(etag));
+        }
+        enviar(context, tipo, comprimido.toByteArray());
+    }
+
+    /**
+     * Segue a cadeia com o corpo já pronto. Os cabeçalhos vão para a resposta quando o último writer é
+     * chamado, por isso a decisão de comprimir acontece antes do {@code proceed()}, e não depois.
+     */
+    private static void enviar(WriterInterceptorContext context, MediaType tipo, byte[] corpo) throws IOException {
+        context.setEntity(corpo);
+        context.setType(byte[].class);
+        context.setGenericType(byte[].class);
+        context.setMediaType(tipo);
+        context.proceed();
+    }
+
+    /**
+     * Tipo da resposta. Quando o método devolve um {@code Response} sem tipo, o contexto ainda não o conhece
+     * (o writer é escolhido depois): vale o {@code @Produces} do método ou da classe, se declarar um só tipo.
+     */
+    private MediaType tipo(WriterInterceptorContext context) {
+        if (context.getMediaType() != null) {
+            return context.getMediaType();
+        }
+        if (resourceInfo == null || resourceInfo.getResourceMethod() == null) {
+            return null;
+        }
+        Produces produces = resourceInfo.getResourceMethod().getAnnotation(Produces.class);
+        if (produces == null) {
+            produces = resourceInfo.getResourceClass().getAnnotation(Produces.class);
+        }
+        return produces != null && produces.value().length == 1 ? MediaType.valueOf(produces.value()[0]) : null;
+    }
+
+    private static EntityTag etag(WriterInterceptorContext context) {
+        Object etag = context.getHeaders().getFirst(HttpHeaders.ETAG);
+        if (etag == null || etag instanceof EntityTag) {
+            return (EntityTag) etag;
+        }
+        return EntityTag.valueOf(etag.toString());
+    }
+
+    /**
+     * {@link GZIPOutputStream} com o nível de compressão informado (o padrão da classe é 6).
+     */
+    static GZIPOutputStream gzip(OutputStream destino, int nivel) throws IOException {
+        return new GZIPOutputStream(destino, 8192) {
+            {
+                def.setLevel(nivel);
+            }
+        };
+    }
+
+    private DistributionSummary tamanho(String codificacao) {
+        return DistributionSummary.builder(MetricsConfig.PREFIXO + "resposta.bytes")
+                .description("Tamanho do corpo das respostas JSON como enviado, por codificação")
+                .baseUnit("bytes")
+                .tag("codificacao", codificacao)
+                .register(registry);
+    }
+
+    /**
+     * Verdadeiro se {@code Accept-Encoding} lista gzip (ou {@code *}) sem {@code q=0}.
+     */
+    private boolean aceitaGzip() {
+        List<String> cabecalhos = requestHeaders.getRequestHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (cabecalhos == null) {
+            return false;
+        }
+        for (String cabecalho : cabecalhos) {
+            for (String item : cabecalho.split(",")) {
+                String[] partes = item.trim().toLowerCase(Locale.ROOT).split(";");
+                if (!partes[0].trim().equals(GZIP) && !partes[0].trim().equals("*")) {
+                    continue;
+                }
+                boolean recusado = false;
+                for (int i = 1; i < partes.length; i++) {
+                    String parametro = partes[i].replace(" ", "");
+                    if (parametro.startsWith("q=")) {
+                        try {
+                            recusado = Double.parseDouble(parametro.substring(2)) == 0;
+                        } catch (NumberFormatException e) {
+                            recusado = true;
+                        }
+                    }
+                }
+                if (!recusado) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package org.acme;
 
 import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 import java.util.HashMap;
@@ -10,8 +11,9 @@ import java.util.Map;
 @Schema(description = "Estrutura de resposta para buscas paginadas de autores")
 public class SearchAutorResponse {
 
-    @Schema(description = "Resultados da busca de autores")
-    public List<AutorRepresentation> results;
+    @Schema(description = "Resultados da busca de autores; com fields, cada item traz só os campos pedidos",
+            implementation = AutorRepresentation.class, type = SchemaType.ARRAY)
+    public List<?> results;
 
     @Schema(description = "Metadados da paginação")
     public PaginationMetadata metadata;
@@ -24,15 +26,15 @@ public class SearchAutorResponse {
     }
 
     public static SearchAutorResponse from(
-            List<AutorRepresentation> results,
+            List<?> results,
             UriInfo uriInfo,
             String q,
             String sort,
             String direction,
             int page,
             int size,
-            long totalElements,
-            long totalPages) {
+            Long totalElements,
+            Long totalPages) {
 
         SearchAutorResponse response = new SearchAutorResponse();
         response.results = results;
@@ -50,11 +52,51 @@ public class SearchAutorResponse {
             response.addLink("first", String.format("%s?%s&page=1", baseUri, queryParams.toString()));
             response.addLink("prev", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), page - 1));
         }
-        if (page < totalPages) {
+        if (totalPages == null) {
+            if (results.size() == size) {
+                response.addLink("next", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), page + 1));
+            }
+        } else if (page < totalPages) {
             response.addLink("next", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), page + 1));
             response.addLink("last", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), totalPages));
         }
 
         return response;
     }
+
+    /**
+     * Resposta do modo keyset: o link {@code next} carrega o cursor do último registro retornado.
+     */
+    public static SearchAutorResponse fromCursor(
+            List<?> results,
+            UriInfo uriInfo,
+            String q,
+            String sort,
+            String direction,
+            int size,
+            Long totalElements,
+            String after,
+            String nextCursor) {
+
+        SearchAutorResponse response = new SearchAutorResponse();
+        response.results = results;
+        Long totalPages = totalElements != null ? (long) Math.ceil((double) totalElements / size) : null;
+        response.metadata = new PaginationMetadata(totalElements, totalPages, 0, size);
+        response.metadata.nextCursor = nextCursor;
+
+        String baseUri = uriInfo.getAbsolutePath().toString();
+        StringBuilder queryParams = new StringBuilder();
+        if (q != null && !q.isBlank()) queryParams.append("q=").append(q).append("&");
+        queryParams.append("sort=").append(sort).append("&");
+        queryParams.append("direction=").append(direction).append("&");
+        queryParams.append("size=").append(size);
+
+        response.addLink("self", String.format("%s?%s&after=%s", baseUri, queryParams.toString(), after));
+        response.addLink("first", String.format("%s?%s&after=", baseUri, queryParams.toString()));
+        if (nextCursor != null) {
+            response.addLink("next", String.format("%s?%s&after=%s", baseUri, queryParams.toString(), nextCursor));
+        }
+
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package org.acme;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache dos totais das buscas paginadas, para que navegar entre páginas da mesma busca não
+ * refaça o {@code count}.
+ * <p>
+ * A chave é o recurso mais o filtro e os parâmetros da consulta (ordenação e página não entram).
+ * Cada total guarda a geração de {@link CatalogGenerations} das entidades de que depende:
+ * <ul>
+ *     <li>{@code exact}: usa o total guardado só se a geração ainda for a mesma;</li>
+ *     <li>{@code estimate}: usa qualquer total guardado, mesmo de uma geração anterior;</li>
+ *     <li>{@code none}: não conta.</li>
+ * </ul>
+ * Em ambos os casos, sem total guardado a contagem é feita e guardada.
+ */
+@ApplicationScoped
+public class SearchCountCache {
+
+    private static final int MAX_ENTRADAS = 1024;
+
+    @Inject
+    CatalogGenerations generations;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Total> totais = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Total> eldest) {
+            return size() > MAX_ENTRADAS;
+        }
+    };
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Counter acertos;
+    private Counter falhas;
+
+    @PostConstruct
+    void registrarMetricas() {
+        acertos = registry.counter(MetricsConfig.PREFIXO + "contagem.cache", "resultado", "acerto");
+        falhas = registry.counter(MetricsConfig.PREFIXO + "contagem.cache", "resultado", "falha");
+    }
+
+    /**
+     * Total da busca conforme o modo {@code count} (valores desconhecidos contam como {@code exact}),
+     * ou {@code null} com {@code count=none}.
+     */
+    public Long contar(String modo, String recurso, String filtro, Map<String, Object> params,
+                       LongSupplier contagem, CatalogChange.Entidade... dependencias) {
+        if ("none".equalsIgnoreCase(modo)) {
+            return null;
+        }
+        boolean estimativa = "estimate".equalsIgnoreCase(modo);
+        String chave = recurso + "|" + filtro + "|" + new TreeMap<>(params);
+
+        // A geração é lida antes da contagem: uma escrita confirmada durante a consulta
+        // invalida o total guardado em vez de passar despercebida.
+        long geracao = generations.geracao(dependencias);
+        Total guardado;
+        lock.lock();
+        try {
+            guardado = totais.get(chave);
+        } finally {
+            lock.unlock();
+        }
+        if (guardado != null && (estimativa || guardado.geracao == geracao)) {
+            acertos.increment();
+            return guardado.valor;
+        }
+
+        falhas.increment();
+        long valor = contagem.getAsLong();
+        lock.lock();
+        try {
+            totais.put(chave, new Total(geracao, valor));
+        } finally {
+            lock.unlock();
+        }
+        return valor;
+    }
+
+    private record Total(long geracao, long valor) {
+    }
+}
@@ -31,8 +31,8 @@ public class SearchEditoraResponse {
             String direction,
             int page,
             int size,
-            long totalElements,
-            long totalPages) {
+            Long totalElements,
+            Long totalPages) {
 
         SearchEditoraResponse response = new SearchEditoraResponse();
         response.results = results;
@@ -50,11 +50,51 @@ public class SearchEditoraResponse {
             response.addLink("first", String.format("%s?%s&page=1", baseUri, queryParams.toString()));
             response.addLink("prev", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), page - 1));
         }
-        if (page < totalPages) {
+        if (totalPages == null) {
+            if (results.size() == size) {
+                response.addLink("next", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), page + 1));
+            }
+        } else if (page < totalPages) {
             response.addLink("next", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), page + 1));
             response.addLink("last", String.format("%s?%s&page=%d", baseUri, queryParams.toString(), totalPages));
         }
 
         return response;
     }
+
+    /**
+     * Resposta do modo keyset: o link {@code next} carrega o cursor do último registro retornado.
+     */
+    public static SearchEditoraResponse fromCursor(
+            List<EditoraRepresentation> results,
+            UriInfo uriInfo,
+            String q,
+            String sort,
+            String direction,
+            int size,
+            Long totalElements,
+            String after,
+            String nextCursor) {
+
+        SearchEditoraResponse response = new SearchEditoraResponse();
+        response.results = results;
+        Long totalPages = totalElements != null ? (long) Math.ceil((double) totalElements / size) : null;
+        response.metadata = new PaginationMetadata(totalElements, totalPages, 0, size);
+        response.metadata.nextCursor = nextCursor;
+
+        String baseUri = uriInfo.getAbsolutePath().toString();
+        StringBuilder queryParams = new StringBuilder();
+        if (q != null && !q.isBlank()) queryParams.append("q=").append(q).append("&");
+        queryParams.append("sort=").append(sort).append("&");
+        queryParams.append("direction=").append(direction).append("&");
+        queryParams.append("size=").append(size);
+
+        response.addLink("self", String.format("%s?%s&after=%s", baseUri, queryParams.toString(), after));
+        response.addLink("first", String.format("%s?%s&after=", baseUri, queryParams.toString()));
+        if (nextCursor != null) {
+            response.addLink("next", String.format("%s?%s&after=%s", baseUri, queryParams.toString(), nextCursor));
+        }
+
+        return response;
+    }
 }
\ No newline at end of file
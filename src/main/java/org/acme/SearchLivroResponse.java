@@ -2,6 +2,7 @@ package org.acme;
 
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.core.UriBuilder;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 import java.net.URI;
@@ -10,28 +11,35 @@ import java.util.List;
 @Schema(name = "SearchLivroResponse", description = "Resposta paginada para a busca de livros com links HATEOAS")
 public class SearchLivroResponse {
 
-    public List<LivroRepresentation> livros;
+    @Schema(description = "Livros da página; com fields, cada item traz só os campos pedidos",
+            implementation = LivroRepresentation.class, type = SchemaType.ARRAY)
+    public List<?> livros;
     public String query;
     public String sort;
     public String direction;
+    @Schema(description = "Página atual (base 1); 0 no modo cursor")
     public int page;
     public int size;
-    public long totalElements;
-    public long totalPages;
+    @Schema(description = "Total de registros; nulo quando a contagem foi dispensada (count=none)")
+    public Long totalElements;
+    @Schema(description = "Total de páginas; nulo quando a contagem foi dispensada (count=none)")
+    public Long totalPages;
+    @Schema(description = "Cursor opaco da próxima página no modo keyset (parâmetro after)")
+    public String nextCursor;
 
     @Schema(name = "_links", description = "Links HATEOAS para navegação da paginação")
     public Links _links;
 
     public static SearchLivroResponse from(
-            List<LivroRepresentation> livros,
+            List<?> livros,
             UriInfo uriInfo,
             String query,
             String sort,
             String direction,
             int page,
             int size,
-            long totalElements,
-            long totalPages) {
+            Long totalElements,
+            Long totalPages) {
 
         SearchLivroResponse response = new SearchLivroResponse();
         response.livros = livros;
@@ -48,18 +56,59 @@ public class SearchLivroResponse {
 
         response._links.self = baseUri.replaceQueryParam("page", page).build();
         response._links.first = baseUri.replaceQueryParam("page", 1).build();
-        response._links.last = baseUri.replaceQueryParam("page", totalPages).build();
+        if (totalPages != null) {
+            response._links.last = baseUri.replaceQueryParam("page", totalPages).build();
+        }
 
         if (page > 1) {
             response._links.prev = baseUri.replaceQueryParam("page", page - 1).build();
         }
-        if (page < totalPages) {
+        boolean temProxima = totalPages != null ? page < totalPages : livros.size() == size;
+        if (temProxima) {
             response._links.next = baseUri.replaceQueryParam("page", page + 1).build();
         }
 
         return response;
     }
 
+    /**
+     * Resposta do modo keyset: não há número de página, e o link {@code next}
+     * carrega o cursor do último livro retornado.
+     */
+    public static SearchLivroResponse fromCursor(
+            List<?> livros,
+            UriInfo uriInfo,
+            String query,
+            String sort,
+            String direction,
+            int size,
+            Long totalElements,
+            String nextCursor) {
+
+        SearchLivroResponse response = new SearchLivroResponse();
+        response.livros = livros;
+        response.query = query;
+        response.sort = sort;
+        response.direction = direction;
+        response.size = size;
+        response.totalElements = totalElements;
+        if (totalElements != null) {
+            response.totalPages = (long) Math.ceil((double) totalElements / size);
+        }
+        response.nextCursor = nextCursor;
+
+        response._links = new Links();
+        UriBuilder baseUri = uriInfo.getRequestUriBuilder().replaceQueryParam("page");
+
+        response._links.self = baseUri.build();
+        response._links.first = baseUri.replaceQueryParam("after", "").build();
+        if (nextCursor != null) {
+            response._links.next = baseUri.replaceQueryParam("after", nextCursor).build();
+        }
+
+        return response;
+    }
+
     @Schema(name = "LinksSearch", description = "Coleção de links HATEOAS para paginação da busca")
     public static class Links {
         public URI self;
@@ -68,4 +117,4 @@ public class SearchLivroResponse {
         public URI next;
         public URI last;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package org.acme;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache das respostas das buscas paginadas ({@code /livros/search}, {@code /autores/search} e {@code /editoras/search}),
+ * para que a mesma busca repetida não refaça as consultas, a contagem e o mapeamento das representações.
+ * <p>
+ * A chave é o recurso, a URI base (usada nos links) e os parâmetros da busca já com os valores padrão, na ordem
+ * do método: {@code ?q=dom} e {@code ?page=1&q=dom} caem na mesma entrada. Como em {@link SearchCountCache}, cada
+ * resposta guarda a geração de {@link CatalogGenerations} das entidades que ela mostra, lida antes da busca; qualquer
+ * escrita confirmada nessas entidades ({@code criar}, {@code atualizar}, {@code atualizarStatus}, {@code excluir},
+ * operações em lote e restauração de snapshot) invalida a entrada. As entradas também expiram depois de
+ * {@code catalogo.busca.cache.ttl} e as menos usadas saem quando o cache passa de {@code catalogo.busca.cache.tamanho}.
+ * <p>
+ * Só respostas 200 são guardadas, e a resposta guardada é o objeto já montado: a serialização continua a cada requisição.
+ */
+@ApplicationScoped
+public class SearchResponseCache {
+
+    private static final char SEPARADOR = '\u0000';
+
+    @ConfigProperty(name = "catalogo.busca.cache.tamanho", defaultValue = "1024")
+    int tamanho;
+
+    @ConfigProperty(name = "catalogo.busca.cache.ttl", defaultValue = "60S")
+    Duration ttl;
+
+    @Inject
+    CatalogGenerations generations;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Map<String, Entrada> entradas;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Contadores> porRecurso = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void iniciar() {
+        entradas = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > tamanho;
+            }
+        };
+        registry.gauge(MetricsConfig.PREFIXO + "busca.cache.entradas", this, SearchResponseCache::tamanhoAtual);
+    }
+
+    /**
+     * Chave da busca: o recurso, a URI base e os {@code parametros} já resolvidos (com os valores padrão aplicados).
+     */
+    static String chave(String recurso, UriInfo uriInfo, Object... parametros) {
+        StringBuilder chave = new StringBuilder(recurso).append(SEPARADOR).append(uriInfo.getBaseUri());
+        for (Object parametro : parametros) {
+            // Nulo e vazio são buscas diferentes (after ausente pagina por offset; after vazio, por cursor).
+            chave.append(SEPARADOR);
+            if (parametro != null) {
+                chave.append('=').append(parametro);
+            }
+        }
+        return chave.toString();
+    }
+
+    /**
+     * Devolve a resposta guardada em {@code chave} se ela ainda for da geração atual das {@code dependencias};
+     * senão executa a {@code busca} e guarda o resultado, se for 200.
+     */
+    public Response responder(String recurso, String chave, Supplier<Response> busca, CatalogChange.Entidade... dependencias) {
+        Contadores contadores = porRecurso.computeIfAbsent(recurso, this::registrar);
+
+        // A geração é lida antes da busca: uma escrita confirmada durante a consulta invalida a resposta guardada.
+        long geracao = generations.geracao(dependencias);
+        long agora = System.nanoTime();
+        Entrada entrada;
+        lock.lock();
+        try {
+            entrada = entradas.get(chave);
+            if (entrada != null && (entrada.geracao != geracao || agora - entrada.gravadaEm > ttl.toNanos())) {
+                entradas.remove(chave);
+                entrada = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entrada != null) {
+            contadores.acertos.increment();
+            return Response.ok(entrada.resposta).build();
+        }
+
+        contadores.falhas.increment();
+        Response response = busca.get();
+        if (response.getStatus() == Response.Status.OK.getStatusCode() && response.hasEntity()) {
+            lock.lock();
+            try {
+                entradas.put(chave, new Entrada(geracao, agora, response.getEntity()));
+            } finally {
+                lock.unlock();
+            }
+            contadores.gravacoes.increment();
+        }
+        return response;
+    }
+
+    /**
+     * Acertos, falhas e gravações por recurso desde a inicialização, no formato das regiões do cache de segundo nível.
+     */
+    public List<CacheRegionStats> estatisticas() {
+        Map<String, Long> elementos = new TreeMap<>();
+        lock.lock();
+        try {
+            for (String chave : entradas.keySet()) {
+                elementos.merge(chave.substring(0, chave.indexOf(SEPARADOR)), 1L, Long::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+        List<CacheRegionStats> estatisticas = new ArrayList<>();
+        new TreeMap<>(porRecurso).forEach((recurso, contadores) -> estatisticas.add(CacheRegionStats.of("busca." + recurso,
+                (long) contadores.acertos.count(), (long) contadores.falhas.count(), (long) contadores.gravacoes.count(),
+                elementos.getOrDefault(recurso, 0L))));
+        return estatisticas;
+    }
+
+    private Contadores registrar(String recurso) {
+        Contadores contadores = new Contadores(
+                registry.counter(MetricsConfig.PREFIXO + "busca.cache", "recurso", recurso, "resultado", "acerto"),
+                registry.counter(MetricsConfig.PREFIXO + "busca.cache", "recurso", recurso, "resultado", "falha"),
+                registry.counter(MetricsConfig.PREFIXO + "busca.cache.gravacoes", "recurso", recurso));
+        registry.gauge(MetricsConfig.PREFIXO + "busca.cache.taxa.acerto", Tags.of("recurso", recurso), contadores, Contadores::taxaAcerto);
+        return contadores;
+    }
+
+    private double tamanhoAtual() {
+        lock.lock();
+        try {
+            return entradas.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entrada(long geracao, long gravadaEm, Object resposta) {
+    }
+
+    private record Contadores(Counter acertos, Counter falhas, Counter gravacoes) {
+
+        double taxaAcerto() {
+            double leituras = acertos.count() + falhas.count();
+            return leituras == 0 ? 0 : acertos.count() / leituras;
+        }
+    }
+}
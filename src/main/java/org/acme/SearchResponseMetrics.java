@@ -0,0 +1,70 @@
+package org.acme;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+
+/**
+ * Mede as respostas das buscas de livros, autores e editoras: quantos registros vieram na página,
+ * o total encontrado (quando contado) e o tempo de serialização do corpo. As listagens completas
+ * ({@code GET /autores} e {@code GET /editoras}) usam as mesmas respostas, sem {@code metadata}.
+ */
+@Provider
+public class SearchResponseMetrics implements WriterInterceptor {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Object entity = context.getEntity();
+        String recurso;
+        int resultados;
+        Long total;
+        if (entity instanceof SearchLivroResponse response) {
+            recurso = "livros";
+            resultados = response.livros.size();
+            total = response.totalElements;
+        } else if (entity instanceof SearchAutorResponse response) {
+            recurso = "autores";
+            resultados = response.results.size();
+            total = response.metadata != null ? response.metadata.totalElements : null;
+        } else if (entity instanceof SearchEditoraResponse response) {
+            recurso = "editoras";
+            resultados = response.results.size();
+            total = response.metadata != null ? response.metadata.totalElements : null;
+        } else {
+            context.proceed();
+            return;
+        }
+
+        DistributionSummary.builder(MetricsConfig.PREFIXO + "busca.resultados")
+                .description("Registros devolvidos na página da busca")
+                .tag("recurso", recurso)
+                .register(registry)
+                .record(resultados);
+        if (total != null) {
+            DistributionSummary.builder(MetricsConfig.PREFIXO + "busca.total")
+                    .description("Total de registros encontrados pela busca")
+                    .tag("recurso", recurso)
+                    .register(registry)
+                    .record(total);
+        }
+
+        Timer.Sample inicio = Timer.start(registry);
+        try {
+            context.proceed();
+        } finally {
+            inicio.stop(Timer.builder(MetricsConfig.PREFIXO + "busca.serializacao")
+                    .description("Tempo de serialização da resposta da busca")
+                    .tag("recurso", recurso)
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.acme;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.persistence.TypedQuery;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos pedidos no parâmetro {@code fields} (sparse fieldsets).
+ * <p>
+ * Quando só colunas da própria entidade (e {@code _links}) são pedidas, a consulta vira uma projeção
+ * que seleciona apenas essas colunas e nunca toca as associações. Se alguma associação for pedida,
+ * a entidade é carregada normalmente e a representação é recortada nos campos pedidos.
+ */
+final class SparseFieldset {
+
+    static final String LINKS = "_links";
+
+    private final Set<String> campos;
+    private final Set<String> relacoes;
+
+    private SparseFieldset(Set<String> campos, Set<String> relacoes) {
+        this.campos = campos;
+        this.relacoes = relacoes;
+    }
+
+    /**
+     * Lê a lista separada por vírgulas; {@code null} quando o parâmetro está vazio (representação completa).
+     */
+    static SparseFieldset parse(String fields, Set<String> colunas, Set<String> relacoes) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            campo = campo.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            if (!colunas.contains(campo) && !relacoes.contains(campo) && !LINKS.equals(campo)) {
+                throw new WebApplicationException("Campo '" + campo + "' desconhecido em fields.", Response.Status.BAD_REQUEST);
+            }
+            campos.add(campo);
+        }
+        return campos.isEmpty() ? null : new SparseFieldset(campos, relacoes);
+    }
+
+    Set<String> campos() {
+        return campos;
+    }
+
+    boolean contem(String campo) {
+        return campos.contains(campo);
+    }
+
+    /**
+     * Verdadeiro quando nenhuma associação foi pedida e a consulta pode ser uma projeção.
+     */
+    boolean projetavel() {
+        return campos.stream().noneMatch(relacoes::contains);
+    }
+
+    /**
+     * Colunas da projeção: {@code id}, as pedidas e as {@code extras} necessárias para links ou cursor.
+     */
+    List<String> colunas(Collection<String> extras) {
+        Set<String> colunas = new LinkedHashSet<>();
+        colunas.add("id");
+        for (String campo : campos) {
+            if (!LINKS.equals(campo)) {
+                colunas.add(campo);
+            }
+        }
+        colunas.addAll(extras);
+        return List.copyOf(colunas);
+    }
+
+    static String hql(String entidade, List<String> colunas, String filtro, Sort sort) {
+        StringBuilder hql = new StringBuilder("select ").append(String.join(", ", colunas))
+                .append(" from ").append(entidade);
+        if (filtro != null && !filtro.isEmpty()) {
+            hql.append(" where ").append(filtro);
+        }
+        if (sort != null && !sort.getColumns().isEmpty()) {
+            hql.append(" order by ").append(sort.getColumns().stream()
+                    .map(coluna -> coluna.getName() + (coluna.getDirection() == Sort.Direction.Descending ? " desc" : ""))
+                    .collect(Collectors.joining(", ")));
+        }
+        return hql.toString();
+    }
+
+    /**
+     * Executa a projeção com o mesmo filtro e ordenação da consulta de entidades. {@code limite} negativo não limita.
+     */
+    Projecao projetar(String entidade, Collection<String> extras, String filtro, Map<String, Object> params,
+                      Sort sort, int inicio, int limite) {
+        List<String> colunas = colunas(extras);
+        TypedQuery<Object[]> query = Livro.getEntityManager()
+                .createQuery(hql(entidade, colunas, filtro, sort), Object[].class)
+                .setFirstResult(inicio);
+        if (limite >= 0) {
+            query.setMaxResults(limite);
+        }
+        params.forEach(query::setParameter);
+        return new Projecao(colunas, query.getResultList());
+    }
+
+    /**
+     * Campos pedidos de uma linha da projeção, na ordem em que foram pedidos; {@code _links} fica por conta de quem chama.
+     */
+    Map<String, Object> linha(List<String> colunas, Object[] valores) {
+        Map<String, Object> linha = new LinkedHashMap<>();
+        for (String campo : campos) {
+            if (!LINKS.equals(campo)) {
+                linha.put(campo, valores[colunas.indexOf(campo)]);
+            }
+        }
+        return linha;
+    }
+
+    record Projecao(List<String> colunas, List<Object[]> linhas) {
+
+        Object valor(Object[] linha, String coluna) {
+            return linha[colunas.indexOf(coluna)];
+        }
+
+        /**
+         * Reordena as linhas conforme {@code ids} (usado na ordenação por relevância).
+         */
+        Projecao naOrdem(List<Long> ids) {
+            Map<Long, Object[]> porId = new LinkedHashMap<>();
+            for (Object[] linha : linhas) {
+                porId.put((Long) valor(linha, "id"), linha);
+            }
+            List<Object[]> ordenadas = new ArrayList<>(linhas.size());
+            for (Long id : ids) {
+                Object[] linha = porId.get(id);
+                if (linha != null) {
+                    ordenadas.add(linha);
+                }
+            }
+            return new Projecao(colunas, ordenadas);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.acme;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Quantidade de livros por status, mantida em memória")
+public class StatusSummaryResponse {
+
+    @Schema(description = "Total de livros no acervo", example = "5")
+    public long total;
+
+    @Schema(description = "Quantidade por status (todos os status aparecem)")
+    public Map<Livro.StatusLivro, Long> porStatus;
+
+    @Schema(description = "Quantidade por status de cada editora; presente com porEditora=true")
+    public List<PorEditora> porEditora;
+
+    @Schema(description = "Se os contadores conferiam com o banco; presente com verificar=true")
+    public Boolean consistente;
+
+    @Schema(description = "Diferenças encontradas e corrigidas na verificação")
+    public List<String> divergencias;
+
+    public static StatusSummaryResponse from(Map<Livro.StatusLivro, Long> porStatus) {
+        StatusSummaryResponse response = new StatusSummaryResponse();
+        response.porStatus = porStatus;
+        response.total = porStatus.values().stream().mapToLong(Long::longValue).sum();
+        return response;
+    }
+
+    public StatusSummaryResponse comEditoras(Map<Long, Map<Livro.StatusLivro, Long>> editoras) {
+        porEditora = editoras.entrySet().stream()
+                .map(entry -> PorEditora.of(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing((PorEditora editora) -> editora.editoraId,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return this;
+    }
+
+    public StatusSummaryResponse comVerificacao(List<String> divergencias) {
+        this.consistente = divergencias.isEmpty();
+        this.divergencias = divergencias;
+        return this;
+    }
+
+    @Schema(description = "Quantidade de livros por status de uma editora")
+    public static class PorEditora {
+
+        @Schema(description = "Id da editora; nulo para livros sem editora", example = "1")
+        public Long editoraId;
+
+        @Schema(description = "Total de livros da editora", example = "2")
+        public long total;
+
+        @Schema(description = "Quantidade por status")
+        public Map<Livro.StatusLivro, Long> porStatus;
+
+        static PorEditora of(Long editoraId, Map<Livro.StatusLivro, Long> porStatus) {
+            PorEditora result = new PorEditora();
+            result.editoraId = editoraId;
+            result.porStatus = porStatus;
+            result.total = porStatus.values().stream().mapToLong(Long::longValue).sum();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme;
+
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+@Path("/suggest")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Sugestões", description = "Autocompletar de títulos, autores e editoras")
+public class SuggestResource {
+
+    private static final int LIMITE_MAXIMO = 50;
+
+    @Inject
+    CatalogSuggester suggester;
+
+    @GET
+    @NonBlocking
+    @Operation(summary = "Sugestões para autocompletar",
+            description = "Livros, autores e editoras cujo título ou nome começa pelo texto digitado, ou tem uma palavra que começa por ele. Ignora acentos e maiúsculas e responde da memória, sem consultar o banco")
+    @APIResponse(responseCode = "200", description = "Sugestões, das que começam pelo texto para as que só contêm uma palavra com ele",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = CatalogSuggester.Sugestao.class, type = SchemaType.ARRAY)))
+    @APIResponse(responseCode = "400", description = "Tipo desconhecido ou limite inválido")
+    public Response sugerir(
+            @Parameter(description = "Texto digitado até agora", example = "grande sert")
+            @QueryParam("q") String q,
+            @Parameter(description = "Tipos a sugerir, separados por vírgula (livro, autor, editora); padrão: todos")
+            @QueryParam("tipos") String tipos,
+            @Parameter(description = "Número máximo de sugestões (1 a " + LIMITE_MAXIMO + ")")
+            @QueryParam("limite") @DefaultValue("10") int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("O limite deve estar entre 1 e " + LIMITE_MAXIMO + ".").build();
+        }
+        Set<CatalogSuggester.Tipo> selecionados = EnumSet.allOf(CatalogSuggester.Tipo.class);
+        if (tipos != null && !tipos.isBlank()) {
+            selecionados.clear();
+            for (String tipo : tipos.split(",")) {
+                try {
+                    selecionados.add(CatalogSuggester.Tipo.valueOf(tipo.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity("Tipo '" + tipo.trim() + "' desconhecido em tipos.").build();
+                }
+            }
+        }
+        return Response.ok(suggester.sugerir(q, selecionados, limite)).build();
+    }
+}
@@ -0,0 +1,53 @@
+-- Esquema equivalente ao gerado pelo Hibernate a partir das entidades (perfil persistent).
+-- Sequências com incremento 50, como o otimizador pooled do Hibernate espera.
+
+CREATE SEQUENCE Editora_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE DetalhesEditora_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE Autor_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE Livro_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE Editora (
+    id BIGINT NOT NULL,
+    nome VARCHAR(100) NOT NULL,
+    endereco VARCHAR(255) NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE DetalhesEditora (
+    id BIGINT NOT NULL,
+    telefone VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    editora_id BIGINT NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_DetalhesEditora_editora UNIQUE (editora_id),
+    CONSTRAINT FK_DetalhesEditora_editora FOREIGN KEY (editora_id) REFERENCES Editora (id)
+);
+
+CREATE TABLE Autor (
+    id BIGINT NOT NULL,
+    nome VARCHAR(100) NOT NULL,
+    nacionalidade VARCHAR(50) NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE Livro (
+    id BIGINT NOT NULL,
+    titulo VARCHAR(100) NOT NULL,
+    isbn VARCHAR(255) NOT NULL,
+    anoPublicacao INTEGER NOT NULL CHECK (anoPublicacao BETWEEN 1000 AND 2100),
+    status VARCHAR(255) CHECK (status IN ('DISPONIVEL', 'EMPRESTADO', 'EM_MANUTENCAO', 'EXTRAVIADO')),
+    editora_id BIGINT,
+    version BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT FK_Livro_editora FOREIGN KEY (editora_id) REFERENCES Editora (id)
+);
+
+CREATE TABLE Livro_Autor (
+    livros_id BIGINT NOT NULL,
+    autores_id BIGINT NOT NULL,
+    CONSTRAINT FK_LivroAutor_livro FOREIGN KEY (livros_id) REFERENCES Livro (id),
+    CONSTRAINT FK_LivroAutor_autor FOREIGN KEY (autores_id) REFERENCES Autor (id)
+);
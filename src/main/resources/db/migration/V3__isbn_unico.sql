@@ -0,0 +1,2 @@
+-- Um ISBN por livro; o índice único também atende as buscas por ISBN feitas no banco.
+ALTER TABLE Livro ADD CONSTRAINT UK_Livro_isbn UNIQUE (isbn);
@@ -0,0 +1,4 @@
+-- Filtros autorId e editoraId da busca de livros: o índice da tabela de junção começa pelo autor
+-- (o das chaves estrangeiras começa pelo livro), e o da editora entrega os livros já na ordem do id.
+CREATE INDEX IX_Livro_Autor_autor ON Livro_Autor (autores_id, livros_id);
+CREATE INDEX IX_Livro_editora ON Livro (editora_id, id);
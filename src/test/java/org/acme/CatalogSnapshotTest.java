@@ -0,0 +1,109 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Sobe com o esquema das migrações do Flyway e o Hibernate só validando as entidades contra ele,
+ * como no perfil persistent: se as migrações e as entidades divergirem, a aplicação nem inicia.
+ */
+@QuarkusTest
+@TestProfile(CatalogSnapshotTest.Migracoes.class)
+public class CatalogSnapshotTest {
+
+    public static class Migracoes implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.datasource.jdbc.url", "jdbc:h2:mem:migracoes",
+                    "quarkus.flyway.migrate-at-start", "true",
+                    "quarkus.hibernate-orm.database.generation", "validate",
+                    "quarkus.hibernate-orm.sql-load-script", "no-file",
+                    "catalogo.snapshot.diretorio", "target/snapshots");
+        }
+    }
+
+    @Test
+    void exportarERestaurarDevolveOAcervo() {
+        given()
+                .when().post("/snapshots/ida-e-volta/export")
+                .then()
+                .statusCode(200)
+                .body("linhas.Livro", is(5))
+                .body("linhas.Autor", is(5))
+                .body("linhas.Editora", is(4));
+
+        // Alterações depois da exportação, que a restauração deve desfazer.
+        given()
+                .contentType("application/json")
+                .body("{\"titulo\":\"Livro Fora do Snapshot\",\"isbn\":\"9780000000048\",\"anoPublicacao\":2020,"
+                        + "\"editora\":{\"id\":3},\"autores\":[{\"id\":3}]}")
+                .when().post("/livros")
+                .then()
+                .statusCode(201);
+        given()
+                .contentType("application/json")
+                .body("{\"status\":\"EMPRESTADO\",\"ids\":[1,2]}")
+                .when().put("/livros/status")
+                .then()
+                .statusCode(200)
+                .body("atualizados", is(2));
+
+        given()
+                .when().post("/snapshots/ida-e-volta/restore")
+                .then()
+                .statusCode(200)
+                .body("linhas.Livro", is(5))
+                .body("linhas.Livro_Autor", is(5));
+
+        given()
+                .when().get("/livros")
+                .then()
+                .statusCode(200)
+                .body("size()", is(5));
+
+        given()
+                .queryParam("q", "sertao")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(1))
+                .body("livros[0].id", is(4));
+
+        given()
+                .queryParam("q", "fora do snapshot")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(0));
+
+        given()
+                .when().get("/livros/isbn/9788535907408")
+                .then()
+                .statusCode(200)
+                .body("id", is(1))
+                .body("status", is("DISPONIVEL"));
+        given()
+                .when().get("/livros/isbn/9780000000048")
+                .then()
+                .statusCode(404);
+
+        given()
+                .queryParam("verificar", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("total", is(5))
+                .body("porStatus.DISPONIVEL", is(3))
+                .body("porStatus.EMPRESTADO", is(1))
+                .body("consistente", is(true));
+    }
+}
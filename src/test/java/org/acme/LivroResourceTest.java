@@ -0,0 +1,864 @@
+package org.acme;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.path.json.JsonPath;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class LivroResourceTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void limparEstatisticas() {
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listarTodosUsaUmaUnicaConsulta() {
+        given()
+                .when().get("/livros")
+                .then()
+                .statusCode(200)
+                .body("size()", is(5));
+
+        assertConsultas(1);
+    }
+
+    @Test
+    void listarAutoresEEditorasSemMetadataDePaginacao() {
+        given()
+                .when().get("/autores")
+                .then()
+                .statusCode(200)
+                .body("results.size()", greaterThanOrEqualTo(5));
+
+        given()
+                .when().get("/editoras")
+                .then()
+                .statusCode(200)
+                .body("results.size()", greaterThanOrEqualTo(4));
+    }
+
+    @Test
+    void searchResolvePaginaComConsultasFixas() {
+        given()
+                .queryParam("size", 5)
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("livros.size()", is(5))
+                .body("livros[0].editora.detalhes.telefone", is("(11) 3707-3500"));
+
+        // count + página + carga dos relacionamentos
+        assertConsultas(3);
+    }
+
+    @Test
+    void searchFiltraPorAutorEEditora() {
+        given()
+                .queryParam("editoraId", 1)
+                .queryParam("sort", "titulo")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(2))
+                .body("livros.id", contains(1, 5));
+
+        given()
+                .queryParam("autorId", 5)
+                .queryParam("editoraId", 1)
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(1))
+                .body("livros[0].titulo", is("O Senhor dos Anéis"));
+    }
+
+    @Test
+    void searchPorAutorComCursorEContagemExata() {
+        // Livros com dois autores: um join com Livro_Autor repetiria cada um deles.
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            ndjson.append("{\"titulo\":\"Cursor do Autor ").append(i).append("\",\"isbn\":\"978200000000")
+                    .append(i).append("\",\"anoPublicacao\":2015,\"autores\":[{\"id\":1},{\"id\":2}]}\n");
+        }
+        List<Integer> criados = given()
+                .contentType("application/x-ndjson")
+                .body(ndjson.toString().getBytes(StandardCharsets.UTF_8))
+                .when().post("/livros/batch")
+                .then()
+                .statusCode(200)
+                .body("criados", is(5))
+                .extract().path("resultados.id");
+        try {
+            // Com q a busca vai pelo índice; sem q, pelo FILTRO_AUTOR no banco.
+            for (String q : new String[]{"cursor", null}) {
+                JsonPath porOffset = given()
+                        .queryParam("autorId", 1)
+                        .queryParam("sort", "titulo")
+                        .queryParam("size", 50)
+                        .queryParams(q == null ? Map.of() : Map.of("q", q))
+                        .when().get("/livros/search")
+                        .then()
+                        .statusCode(200)
+                        .extract().jsonPath();
+                int total = porOffset.getInt("totalElements");
+                assertTrue(total >= 5);
+
+                List<Integer> porCursor = new ArrayList<>();
+                String after = "";
+                int paginas = 0;
+                while (after != null) {
+                    JsonPath pagina = given()
+                            .queryParam("autorId", 1)
+                            .queryParam("sort", "titulo")
+                            .queryParam("size", 2)
+                            .queryParam("after", after)
+                            .queryParam("count", "exact")
+                            .queryParams(q == null ? Map.of() : Map.of("q", q))
+                            .when().get("/livros/search")
+                            .then()
+                            .statusCode(200)
+                            .body("totalElements", is(total))
+                            .extract().jsonPath();
+                    porCursor.addAll(pagina.getList("livros.id", Integer.class));
+                    after = pagina.getString("nextCursor");
+                    paginas++;
+                }
+
+                assertTrue(paginas > 1, "Esperado mais de uma página por cursor");
+                assertEquals(porOffset.getList("livros.id", Integer.class), porCursor);
+                assertEquals(total, new HashSet<>(porCursor).size());
+                assertTrue(porCursor.containsAll(criados));
+            }
+        } finally {
+            for (int id : criados) {
+                given()
+                        .when().delete("/livros/" + id)
+                        .then()
+                        .statusCode(204);
+            }
+        }
+    }
+
+    @Test
+    void searchTextualOrdenaEPaginaPeloIndice() {
+        // "editora" casa com Editora Rocco (livro 2) e Editora Record (livro 3).
+        given()
+                .queryParam("q", "editora")
+                .queryParam("sort", "titulo")
+                .queryParam("direction", "desc")
+                .queryParam("page", 2)
+                .queryParam("size", 1)
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(2))
+                .body("livros.id", contains(3));
+
+        // sem count nem lista in: só a carga dos livros da página
+        assertConsultas(1);
+
+        given()
+                .queryParam("q", "editora")
+                .queryParam("editoraId", 2)
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(1))
+                .body("livros.id", contains(2));
+    }
+
+    @Test
+    void searchTextualDaOsMesmosLivrosPorOffsetEPorCursor() {
+        // "a" casa por prefixo com Assis (1), Alquimista (2), Areia e Amado (3) e Anéis (5).
+        for (String sort : new String[]{"titulo", "anoPublicacao", "relevancia"}) {
+            List<Integer> porOffset = given()
+                    .queryParam("q", "a")
+                    .queryParam("sort", sort)
+                    .queryParam("direction", "desc")
+                    .when().get("/livros/search")
+                    .then()
+                    .statusCode(200)
+                    .body("totalElements", is(4))
+                    .extract().path("livros.id");
+
+            // Relevância não tem cursor; o modo cursor ordena pelo id.
+            String sortCursor = "relevancia".equals(sort) ? "id" : sort;
+            List<Integer> porCursor = new ArrayList<>();
+            String after = "";
+            while (after != null) {
+                JsonPath pagina = given()
+                        .queryParam("q", "a")
+                        .queryParam("sort", sortCursor)
+                        .queryParam("direction", "desc")
+                        .queryParam("size", 1)
+                        .queryParam("after", after)
+                        .queryParam("fields", "id,titulo")
+                        .when().get("/livros/search")
+                        .then()
+                        .statusCode(200)
+                        .body("totalElements", is(4))
+                        .extract().jsonPath();
+                porCursor.addAll(pagina.getList("livros.id", Integer.class));
+                after = pagina.getString("nextCursor");
+            }
+
+            assertEquals(4, porCursor.size());
+            assertEquals(new HashSet<>(porOffset), new HashSet<>(porCursor));
+            if (!"relevancia".equals(sort)) {
+                assertEquals(porOffset, porCursor);
+            }
+        }
+
+        // Sem acento na consulta, com acento no nome do autor, nos dois modos.
+        given()
+                .queryParam("q", "joao")
+                .queryParam("after", "")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("livros.id", contains(4));
+        given()
+                .queryParam("q", "joao")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("livros.id", contains(4));
+    }
+
+    @Test
+    void searchRepetidaRespondeDoCache() {
+        given()
+                .queryParam("q", "bra")
+                .when().get("/autores/search")
+                .then()
+                .statusCode(200);
+        statistics.clear();
+
+        given()
+                .queryParam("q", "bra")
+                .queryParam("page", 1)
+                .when().get("/autores/search")
+                .then()
+                .statusCode(200);
+
+        assertConsultas(0);
+
+        given()
+                .when().get("/estatisticas/cache/buscas")
+                .then()
+                .statusCode(200)
+                .body("find { it.regiao == 'busca.autores' }.acertos", greaterThanOrEqualTo(1));
+    }
+
+    @Test
+    void searchPorCursorSemContagem() {
+        given()
+                .queryParam("size", 2)
+                .queryParam("after", "")
+                .queryParam("count", "none")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("livros.size()", is(2))
+                .body("nextCursor", notNullValue());
+
+        // página + carga dos relacionamentos
+        assertConsultas(2);
+    }
+
+    @Test
+    void searchRecusaTamanhoDePaginaInvalido() {
+        for (String recurso : new String[]{"/livros/search", "/autores/search", "/editoras/search"}) {
+            for (int size : new int[]{0, -1, 101}) {
+                given()
+                        .queryParam("size", size)
+                        .queryParam("after", "")
+                        .when().get(recurso)
+                        .then()
+                        .statusCode(400);
+            }
+        }
+
+        assertConsultas(0);
+    }
+
+    @Test
+    void buscarPorIdRespondeNaoModificadoSemCarregarOGrafo() {
+        String etag = given()
+                .when().get("/livros/1")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        statistics.clear();
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/livros/1")
+                .then()
+                .statusCode(304);
+
+        // apenas a consulta de versões
+        assertConsultas(1);
+    }
+
+    @Test
+    void buscarPorIdValidaOETagComESemGzip() {
+        // Sem decodificadores, o RestAssured manda só o Accept-Encoding de cada pedido.
+        RestAssuredConfig semDecodificar = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        String etag = given()
+                .config(semDecodificar)
+                .header("Accept-Encoding", "identity")
+                .when().get("/livros/1")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        String etagGzip = given()
+                .config(semDecodificar)
+                .header("Accept-Encoding", "gzip")
+                .when().get("/livros/1")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .extract().header("ETag");
+        // Corpos diferentes, validadores fortes diferentes.
+        assertEquals(etag.substring(0, etag.length() - 1) + "-gzip\"", etagGzip);
+
+        // O cliente pode ter guardado qualquer uma das duas formas, e pedir ou não gzip na revalidação.
+        for (String codificacao : new String[]{"identity", "gzip"}) {
+            for (String guardado : new String[]{etag, etagGzip}) {
+                given()
+                        .config(semDecodificar)
+                        .header("Accept-Encoding", codificacao)
+                        .header("If-None-Match", guardado)
+                        .when().get("/livros/1")
+                        .then()
+                        .statusCode(304)
+                        .header("ETag", is(guardado));
+            }
+            given()
+                    .config(semDecodificar)
+                    .header("Accept-Encoding", codificacao)
+                    .header("If-None-Match", "\"outra-versao\"")
+                    .when().get("/livros/1")
+                    .then()
+                    .statusCode(200);
+        }
+    }
+
+    @Test
+    void comprimeComGzipSoQuandoOClientePede() {
+        // Sem decodificadores, o RestAssured não pede gzip sozinho e entrega os cabeçalhos como vieram.
+        RestAssuredConfig semDecodificar = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        given()
+                .config(semDecodificar)
+                .header("Accept-Encoding", "gzip")
+                .when().get("/livros/1")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .header("Vary", "Accept-Encoding");
+        given()
+                .config(semDecodificar)
+                .header("Accept-Encoding", "identity")
+                .when().get("/livros/1")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue());
+    }
+
+    @Test
+    void resumoPorStatusNaoConsultaOBanco() {
+        given()
+                .queryParam("porEditora", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("total", is(5))
+                .body("porStatus.DISPONIVEL", is(3))
+                .body("porStatus.EMPRESTADO", is(1))
+                .body("porStatus.EM_MANUTENCAO", is(1))
+                .body("porEditora.size()", is(4));
+
+        assertConsultas(0);
+
+        given()
+                .queryParam("verificar", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("consistente", is(true));
+    }
+
+    @Test
+    void atualizarStatusEmMassaSemCarregarEntidades() {
+        given()
+                .contentType("application/json")
+                .body("{\"status\":\"EMPRESTADO\",\"ids\":[3,999]}")
+                .when().put("/livros/status")
+                .then()
+                .statusCode(200)
+                .body("atualizados", is(0))
+                .body("inalterados", is(1))
+                .body("naoEncontrados[0]", is(999));
+
+        // apenas a projeção do lote; nada a atualizar
+        assertConsultas(1);
+
+        given()
+                .contentType("application/json")
+                .body("{\"status\":\"DISPONIVEL\"}")
+                .when().put("/livros/status")
+                .then()
+                .statusCode(400);
+
+        // Move os livros 2 e 4 de fato e depois os devolve, mantendo o acervo inicial.
+        String etag = given()
+                .when().get("/livros/2")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        given()
+                .contentType("application/json")
+                .body("{\"status\":\"EM_MANUTENCAO\",\"ids\":[2,4]}")
+                .when().put("/livros/status")
+                .then()
+                .statusCode(200)
+                .body("atualizados", is(2))
+                .body("inalterados", is(0));
+
+        String etagAtualizado = given()
+                .when().get("/livros/2")
+                .then()
+                .statusCode(200)
+                .body("status", is("EM_MANUTENCAO"))
+                .extract().header("ETag");
+        assertNotEquals(etag, etagAtualizado);
+
+        given()
+                .queryParam("verificar", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("porStatus.EM_MANUTENCAO", is(3))
+                .body("consistente", is(true));
+
+        given()
+                .contentType("application/json")
+                .body("{\"status\":\"DISPONIVEL\",\"ids\":[2,4]}")
+                .when().put("/livros/status")
+                .then()
+                .statusCode(200)
+                .body("atualizados", is(2));
+
+        given()
+                .queryParam("verificar", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("porStatus.DISPONIVEL", is(3))
+                .body("consistente", is(true));
+    }
+
+    @Test
+    void recargaDoInventarioEsperaOCommitEmAndamento() throws Exception {
+        CountDownLatch publicando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        PausaNaPublicacao.armar(2L, publicando, liberar);
+        try {
+            CompletableFuture<Void> escrita = CompletableFuture.runAsync(() -> given()
+                    .contentType("application/json")
+                    .body("{\"status\":\"EM_MANUTENCAO\",\"ids\":[2]}")
+                    .when().put("/livros/status")
+                    .then()
+                    .statusCode(200)
+                    .body("atualizados", is(1)));
+            assertTrue(publicando.await(10, TimeUnit.SECONDS));
+
+            // O commit já está no banco, mas o evento ainda não chegou aos contadores.
+            CompletableFuture<Void> recarga = CompletableFuture.runAsync(() -> given()
+                    .queryParam("verificar", true)
+                    .when().get("/livros/status/summary")
+                    .then()
+                    .statusCode(200)
+                    .body("porStatus.EM_MANUTENCAO", is(2))
+                    .body("consistente", is(true)));
+            Thread.sleep(300);
+            assertFalse(recarga.isDone(), "A recarga não esperou o evento do commit em andamento");
+
+            liberar.countDown();
+            escrita.get(10, TimeUnit.SECONDS);
+            recarga.get(10, TimeUnit.SECONDS);
+        } finally {
+            liberar.countDown();
+            PausaNaPublicacao.desarmar();
+        }
+
+        given()
+                .queryParam("verificar", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("porStatus.EM_MANUTENCAO", is(2))
+                .body("consistente", is(true));
+
+        given()
+                .contentType("application/json")
+                .body("{\"status\":\"DISPONIVEL\",\"ids\":[2]}")
+                .when().put("/livros/status")
+                .then()
+                .statusCode(200)
+                .body("atualizados", is(1));
+    }
+
+    @Test
+    void sugerirPorPalavraIgnorandoAcentosSemConsultarOBanco() {
+        given()
+                .queryParam("q", "SERTAO")
+                .when().get("/suggest")
+                .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].tipo", is("LIVRO"))
+                .body("[0].id", is(4))
+                .body("[0].rotulo", is("Grande Sertão: Veredas"));
+
+        assertConsultas(0);
+    }
+
+    @Test
+    void buscarPorIsbnERecusarDuplicado() {
+        given()
+                .when().get("/livros/isbn/9788535907408")
+                .then()
+                .statusCode(200)
+                .body("id", is(1))
+                .body("titulo", is("Dom Casmurro"));
+
+        given()
+                .contentType("application/json")
+                .body("{\"titulo\":\"Outro Dom Casmurro\",\"isbn\":\"9788535907408\",\"anoPublicacao\":1900}")
+                .when().post("/livros")
+                .then()
+                .statusCode(409);
+    }
+
+    @Test
+    void cargaEmLoteAceitaArrayJsonENdjson() {
+        String valido = "{\"titulo\":\"Livro em Lote\",\"isbn\":\"%s\",\"anoPublicacao\":2001,\"editora\":{\"id\":2}}";
+        String duplicado = "{\"titulo\":\"Dom Casmurro de Novo\",\"isbn\":\"9788535907408\",\"anoPublicacao\":1900}";
+
+        int doArray = given()
+                .contentType("application/json")
+                .body("[" + valido.formatted("9780000000024") + "," + duplicado + "]")
+                .when().post("/livros/batch")
+                .then()
+                .statusCode(200)
+                .body("total", is(2))
+                .body("criados", is(1))
+                .body("resultados.status", contains(201, 409))
+                .extract().path("resultados[0].id");
+
+        int doNdjson = given()
+                .contentType("application/x-ndjson")
+                .body((duplicado + "\n" + valido.formatted("9780000000031") + "\n").getBytes(StandardCharsets.UTF_8))
+                .when().post("/livros/batch")
+                .then()
+                .statusCode(200)
+                .body("total", is(2))
+                .body("criados", is(1))
+                .body("resultados.status", contains(409, 201))
+                .extract().path("resultados[1].id");
+
+        for (int id : new int[]{doArray, doNdjson}) {
+            given()
+                    .when().delete("/livros/" + id)
+                    .then()
+                    .statusCode(204);
+        }
+    }
+
+    @Test
+    void exportarEmNdjsonUmLivroPorLinha() {
+        long total = QuarkusTransaction.requiringNew().call(() -> Livro.count());
+
+        String completo = given()
+                .accept("application/x-ndjson")
+                .when().get("/livros")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        List<JsonPath> livros = linhas(completo);
+        assertEquals(total, livros.size());
+        for (JsonPath livro : livros) {
+            assertNotNull(livro.get("titulo"));
+            assertNotNull(livro.get("editora"));
+        }
+
+        // Só colunas do livro: a exportação percorre uma projeção.
+        List<JsonPath> projetados = linhas(given()
+                .queryParam("stream", true)
+                .queryParam("fields", "id,titulo")
+                .when().get("/livros")
+                .then()
+                .statusCode(200)
+                .extract().asString());
+        assertEquals(total, projetados.size());
+        for (JsonPath livro : projetados) {
+            assertNotNull(livro.get("titulo"));
+            assertNull(livro.get("isbn"));
+            assertNull(livro.get("editora"));
+        }
+
+        // Com uma associação, as entidades são carregadas e recortadas linha a linha.
+        List<JsonPath> recortados = linhas(given()
+                .queryParam("stream", true)
+                .queryParam("fields", "id,autores")
+                .when().get("/livros")
+                .then()
+                .statusCode(200)
+                .extract().asString());
+        assertEquals(total, recortados.size());
+        for (JsonPath livro : recortados) {
+            assertNotNull(livro.get("autores"));
+            assertNull(livro.get("titulo"));
+        }
+        assertEquals(livros.stream().map(livro -> livro.getLong("id")).toList(),
+                recortados.stream().map(livro -> livro.getLong("id")).toList());
+    }
+
+    private static List<JsonPath> linhas(String ndjson) {
+        return ndjson.lines().filter(linha -> !linha.isBlank()).map(JsonPath::from).toList();
+    }
+
+    @Test
+    void eventosRecusaEntidadeDesconhecida() {
+        given()
+                .queryParam("entidades", "livro,leitor")
+                .when().get("/eventos")
+                .then()
+                .statusCode(400);
+
+        // Sem a época da inicialização, o id não diz a que sequência pertence.
+        given()
+                .header("Last-Event-ID", "42")
+                .when().get("/eventos")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void autoresDeVariosLivrosNumaUnicaConsulta() {
+        given()
+                .when().get("/livros/1/autores")
+                .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].nome", is("Machado de Assis"));
+        given()
+                .when().get("/livros/999/autores")
+                .then()
+                .statusCode(404);
+        statistics.clear();
+
+        given()
+                .contentType("application/json")
+                .body("[2, 4, 999]")
+                .when().post("/livros/autores/batch")
+                .then()
+                .statusCode(200)
+                .body("autores.'2'[0].id", is(2))
+                .body("autores.'4'[0].id", is(4))
+                .body("naoEncontrados", contains(999));
+
+        assertConsultas(1);
+    }
+
+    @Test
+    void excluirEditoraComLivrosConformeAPolitica() {
+        int editoraId = given()
+                .contentType("application/json")
+                .body("{\"nome\":\"Editora Temporária\",\"endereco\":\"Rua Temporária, 100\"}")
+                .when().post("/editoras")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+        int livroId = given()
+                .contentType("application/json")
+                .body("{\"titulo\":\"Livro Temporário\",\"isbn\":\"9780000000017\",\"anoPublicacao\":2000,"
+                        + "\"editora\":{\"id\":" + editoraId + "},\"autores\":[{\"id\":1}]}")
+                .when().post("/livros")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .when().delete("/editoras/" + editoraId)
+                .then()
+                .statusCode(409);
+
+        given()
+                .queryParam("politica", "cascata")
+                .when().delete("/editoras/" + editoraId)
+                .then()
+                .statusCode(200)
+                .body("livros", is(1))
+                .body("lotes", is(1));
+
+        given()
+                .when().get("/livros/" + livroId)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void excluirEditoraEmVariosLotesReatribuindoEDepoisEmCascata() {
+        int antes = given()
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .extract().path("total");
+        int[] editoras = new int[2];
+        for (int i = 0; i < editoras.length; i++) {
+            editoras[i] = given()
+                    .contentType("application/json")
+                    .body("{\"nome\":\"Editora em Lotes " + i + "\",\"endereco\":\"Rua dos Lotes, " + i + "\"}")
+                    .when().post("/editoras")
+                    .then()
+                    .statusCode(201)
+                    .extract().path("id");
+        }
+        int quantidade = EditoraBulkDeleter.TAMANHO_LOTE + 1;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < quantidade; i++) {
+            ndjson.append("{\"titulo\":\"Livro em Lotes ").append(i).append("\",\"isbn\":\"978100000")
+                    .append(String.format("%04d", i)).append("\",\"anoPublicacao\":2010,\"editora\":{\"id\":")
+                    .append(editoras[0]).append("},\"autores\":[{\"id\":1}]}\n");
+        }
+        given()
+                .contentType("application/x-ndjson")
+                .body(ndjson.toString().getBytes(StandardCharsets.UTF_8))
+                .when().post("/livros/batch")
+                .then()
+                .statusCode(200)
+                .body("criados", is(quantidade));
+
+        double reatribuidos = meterRegistry.counter("catalogo.editora.exclusao.livros", "politica", "reatribuir").count();
+        given()
+                .queryParam("politica", "reatribuir")
+                .queryParam("destinoId", editoras[1])
+                .when().delete("/editoras/" + editoras[0])
+                .then()
+                .statusCode(200)
+                .body("livros", is(quantidade))
+                .body("lotes", is(2));
+        assertEquals(reatribuidos + quantidade,
+                meterRegistry.counter("catalogo.editora.exclusao.livros", "politica", "reatribuir").count());
+
+        double apagados = meterRegistry.counter("catalogo.editora.exclusao.livros", "politica", "cascata").count();
+        given()
+                .queryParam("politica", "cascata")
+                .when().delete("/editoras/" + editoras[1])
+                .then()
+                .statusCode(200)
+                .body("livros", is(quantidade))
+                .body("lotes", is(2));
+        assertEquals(apagados + quantidade,
+                meterRegistry.counter("catalogo.editora.exclusao.livros", "politica", "cascata").count());
+        assertEquals(0, meterRegistry.get("catalogo.editora.exclusao.pendentes").gauge().value());
+
+        // Os eventos de cada lote chegaram ao inventário e ao índice de busca.
+        given()
+                .queryParam("verificar", true)
+                .when().get("/livros/status/summary")
+                .then()
+                .statusCode(200)
+                .body("total", is(antes))
+                .body("consistente", is(true));
+        given()
+                .queryParam("q", "livro em lotes")
+                .when().get("/livros/search")
+                .then()
+                .statusCode(200)
+                .body("totalElements", is(0));
+    }
+
+    private void assertConsultas(long maximo) {
+        long executadas = statistics.getPrepareStatementCount();
+        assertTrue(executadas <= maximo, "Esperado no máximo " + maximo + " consultas, executadas: " + executadas);
+    }
+
+    /**
+     * Segura, antes dos contadores do inventário, a publicação da alteração de um livro enquanto estiver armada.
+     */
+    @ApplicationScoped
+    static class PausaNaPublicacao {
+
+        private static volatile Long livroId;
+        private static volatile CountDownLatch publicando;
+        private static volatile CountDownLatch liberar;
+
+        static void armar(Long id, CountDownLatch publicando, CountDownLatch liberar) {
+            PausaNaPublicacao.publicando = publicando;
+            PausaNaPublicacao.liberar = liberar;
+            livroId = id;
+        }
+
+        static void desarmar() {
+            livroId = null;
+        }
+
+        void aoAlterar(@Observes @Priority(Interceptor.Priority.APPLICATION) CatalogChange change) throws InterruptedException {
+            if (change.entidade() == CatalogChange.Entidade.LIVRO && change.id().equals(livroId)) {
+                publicando.countDown();
+                liberar.await(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package org.acme;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gerador de carga em modelo aberto contra uma instância local da API.
+ * <p>
+ * Cadastra editoras, autores e livros e dispara requisições a uma taxa constante, independente
+ * do tempo de resposta. A latência de cada requisição é medida a partir do instante em que ela
+ * deveria ter saído, não de quando saiu: se o gerador ou o servidor atrasarem, a espera entra
+ * na medição em vez de desaparecer (omissão coordenada).
+ * <p>
+ * Executar com {@code ./mvnw -Pload-harness test} com a API já rodando. Parâmetros (propriedades de sistema):
+ * <ul>
+ *     <li>{@code carga.url}: padrão {@code http://localhost:8080};</li>
+ *     <li>{@code carga.taxa}: requisições por segundo (padrão 200);</li>
+ *     <li>{@code carga.duracao} e {@code carga.aquecimento}: em segundos (padrão 60 e 10);</li>
+ *     <li>{@code carga.editoras}, {@code carga.autores} e {@code carga.livros}: volume cadastrado antes da medição
+ *     (padrão 50, 500 e 5000);</li>
+ *     <li>{@code carga.mix}: pesos das operações, por exemplo
+ *     {@code buscarPorId=30,buscarLivros=40,criarLivro=10,atualizarStatus=10,buscarAutores=10} (o padrão).</li>
+ * </ul>
+ */
+public class LoadHarness {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] TERMOS = {"livro", "carga", "editora", "autor", "978", "romance", "historia", "dom"};
+    private static final String[] STATUS = {"DISPONIVEL", "EMPRESTADO", "EM_MANUTENCAO"};
+    private static final double[] PERCENTIS = {0.50, 0.90, 0.99, 0.999};
+    private static final String[] ROTULOS = {"p50", "p90", "p99", "p99.9"};
+
+    private final String base = System.getProperty("carga.url", "http://localhost:8080");
+    private final int taxa = Integer.getInteger("carga.taxa", 200);
+    private final int duracao = Integer.getInteger("carga.duracao", 60);
+    private final int aquecimento = Integer.getInteger("carga.aquecimento", 10);
+    private final int totalEditoras = Integer.getInteger("carga.editoras", 50);
+    private final int totalAutores = Integer.getInteger("carga.autores", 500);
+    private final int totalLivros = Integer.getInteger("carga.livros", 5000);
+    private final Map<Operacao, Integer> mix = mix(System.getProperty("carga.mix",
+            "buscarPorId=30,buscarLivros=40,criarLivro=10,atualizarStatus=10,buscarAutores=10"));
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicLong isbns = new AtomicLong(9_780_000_000_000L + System.currentTimeMillis() % 1_000_000_000L);
+
+    private long[] editoraIds;
+    private long[] autorIds;
+    private long[] livroIds;
+
+    enum Operacao {
+        buscarPorId, buscarLivros, criarLivro, atualizarStatus, buscarAutores
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness().executar();
+    }
+
+    void executar() throws Exception {
+        System.out.printf("Cadastrando %d editoras, %d autores e %d livros em %s%n", totalEditoras, totalAutores, totalLivros, base);
+        popular();
+
+        System.out.printf("Aquecendo por %ds a %d req/s%n", aquecimento, taxa);
+        disparar(Duration.ofSeconds(aquecimento));
+        System.out.printf("Medindo por %ds a %d req/s, mix %s%n", duracao, taxa, mix);
+        Map<Operacao, Medicao> medicoes = disparar(Duration.ofSeconds(duracao));
+        relatorio(medicoes);
+    }
+
+    private void popular() throws IOException, InterruptedException {
+        editoraIds = new long[totalEditoras];
+        for (int i = 0; i < totalEditoras; i++) {
+            editoraIds[i] = criar("/editoras", "{\"nome\":\"Editora de carga " + i + "\",\"endereco\":\"Rua da Carga, " + i
+                    + " - São Paulo\",\"detalhes\":{\"telefone\":\"(11) 3707-3500\",\"email\":\"carga" + i + "@editora.com.br\"}}");
+        }
+        autorIds = new long[totalAutores];
+        for (int i = 0; i < totalAutores; i++) {
+            autorIds[i] = criar("/autores", "{\"nome\":\"Autor de carga " + i + "\",\"nacionalidade\":\"Brasileira\"}");
+        }
+
+        StringBuilder corpo = new StringBuilder();
+        for (int i = 0; i < totalLivros; i++) {
+            corpo.append(novoLivro("Livro de carga " + i + " " + TERMOS[i % TERMOS.length])).append('\n');
+        }
+        HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(URI.create(base + "/livros/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Carga de livros falhou com status " + resposta.statusCode());
+        }
+        List<Long> ids = new ArrayList<>(totalLivros);
+        Matcher matcher = ID.matcher(resposta.body());
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        livroIds = ids.stream().mapToLong(Long::longValue).toArray();
+        if (livroIds.length == 0) {
+            throw new IllegalStateException("Nenhum livro foi criado na carga inicial");
+        }
+    }
+
+    private long criar(String path, String json) throws IOException, InterruptedException {
+        HttpResponse<Void> resposta = http.send(HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String location = resposta.headers().firstValue("Location")
+                .orElseThrow(() -> new IllegalStateException("POST " + path + " respondeu " + resposta.statusCode()));
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * Agenda as requisições em instantes fixos ({@code inicio + i / taxa}) e as executa em threads virtuais,
+     * sem esperar as anteriores terminarem.
+     */
+    private Map<Operacao, Medicao> disparar(Duration janela) throws InterruptedException {
+        Map<Operacao, Medicao> medicoes = new LinkedHashMap<>();
+        for (Operacao operacao : mix.keySet()) {
+            medicoes.put(operacao, new Medicao());
+        }
+        Operacao[] roleta = roleta();
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / taxa;
+        long inicio = System.nanoTime();
+        long fim = inicio + janela.toNanos();
+        long atrasoMaximo = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long previsto = inicio + i * intervalo;
+                if (previsto >= fim) {
+                    break;
+                }
+                long espera = previsto - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                } else {
+                    atrasoMaximo = Math.max(atrasoMaximo, -espera);
+                }
+                Operacao operacao = roleta[ThreadLocalRandom.current().nextInt(roleta.length)];
+                Medicao medicao = medicoes.get(operacao);
+                executor.execute(() -> medicao.registrar(System.nanoTime() - previsto, enviar(operacao)));
+            }
+        }
+        if (atrasoMaximo > TimeUnit.MILLISECONDS.toNanos(10)) {
+            System.out.printf("Aviso: o gerador chegou a atrasar %.1f ms; a latência medida já inclui esse atraso%n",
+                    atrasoMaximo / 1_000_000.0);
+        }
+        return medicoes;
+    }
+
+    private boolean enviar(Operacao operacao) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder request = switch (operacao) {
+            case buscarPorId -> HttpRequest.newBuilder(uri("/livros/" + livroIds[random.nextInt(livroIds.length)])).GET();
+            case buscarLivros -> HttpRequest.newBuilder(uri("/livros/search?q=" + TERMOS[random.nextInt(TERMOS.length)]
+                    + "&sort=titulo&page=" + (1 + random.nextInt(5)) + "&size=20")).GET();
+            case criarLivro -> HttpRequest.newBuilder(uri("/livros"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(novoLivro("Livro novo " + random.nextInt(1_000_000))));
+            case atualizarStatus -> HttpRequest.newBuilder(uri("/livros/" + livroIds[random.nextInt(livroIds.length)]
+                    + "/status?status=" + STATUS[random.nextInt(STATUS.length)]))
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+            case buscarAutores -> HttpRequest.newBuilder(uri("/autores/search?q=carga+" + random.nextInt(totalAutores)
+                    + "&sort=nome&size=20")).GET();
+        };
+        try {
+            int status = http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String novoLivro(String titulo) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"titulo\":\"" + titulo + "\",\"isbn\":\"" + isbns.incrementAndGet() + "\",\"anoPublicacao\":" + (1900 + random.nextInt(120))
+                + ",\"editora\":{\"id\":" + editoraIds[random.nextInt(editoraIds.length)] + "}"
+                + ",\"autores\":[{\"id\":" + autorIds[random.nextInt(autorIds.length)] + "}]}";
+    }
+
+    private URI uri(String path) {
+        return URI.create(base + path);
+    }
+
+    private Operacao[] roleta() {
+        List<Operacao> roleta = new ArrayList<>();
+        mix.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                roleta.add(operacao);
+            }
+        });
+        return roleta.toArray(Operacao[]::new);
+    }
+
+    private void relatorio(Map<Operacao, Medicao> medicoes) {
+        System.out.printf("%n%-16s %9s %9s %8s", "operacao", "total", "req/s", "erros");
+        for (String rotulo : ROTULOS) {
+            System.out.printf(" %9s", rotulo);
+        }
+        System.out.printf(" %9s%n", "max");
+
+        Medicao geral = new Medicao();
+        medicoes.forEach((operacao, medicao) -> {
+            linha(operacao.name(), medicao);
+            geral.somar(medicao);
+        });
+        linha("total", geral);
+        System.out.println("(latências em ms, medidas a partir do instante agendado)");
+    }
+
+    private void linha(String nome, Medicao medicao) {
+        long[] latencias = medicao.ordenadas();
+        System.out.printf("%-16s %9d %9.1f %7.2f%%", nome, latencias.length, latencias.length / (double) duracao,
+                latencias.length == 0 ? 0 : 100.0 * medicao.erros / latencias.length);
+        for (double p : PERCENTIS) {
+            System.out.printf(" %9.2f", percentil(latencias, p));
+        }
+        System.out.printf(" %9.2f%n", latencias.length == 0 ? 0 : latencias[latencias.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.min(ordenadas.length - 1, Math.max(0, Math.ceil(p * ordenadas.length) - 1));
+        return ordenadas[indice] / 1_000_000.0;
+    }
+
+    private static Map<Operacao, Integer> mix(String definicao) {
+        Map<Operacao, Integer> mix = new LinkedHashMap<>();
+        for (String parte : definicao.split(",")) {
+            String[] chaveValor = parte.trim().split("=");
+            int peso = Integer.parseInt(chaveValor[1].trim());
+            if (peso > 0) {
+                mix.put(Operacao.valueOf(chaveValor[0].trim()), peso);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("carga.mix precisa de ao menos uma operação com peso positivo");
+        }
+        return mix;
+    }
+
+    /**
+     * Latências (ns) e erros de uma operação, gravados concorrentemente pelas threads das requisições.
+     */
+    private static final class Medicao {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] latencias = new long[4096];
+        private int quantidade;
+        private long erros;
+
+        void registrar(long latencia, boolean sucesso) {
+            lock.lock();
+            try {
+                if (quantidade == latencias.length) {
+                    latencias = Arrays.copyOf(latencias, quantidade * 2);
+                }
+                latencias[quantidade++] = latencia;
+                if (!sucesso) {
+                    erros++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void somar(Medicao outra) {
+            long[] dela = outra.ordenadas();
+            for (long latencia : dela) {
+                registrar(latencia, true);
+            }
+            erros += outra.erros;
+        }
+
+        long[] ordenadas() {
+            lock.lock();
+            try {
+                long[] copia = Arrays.copyOf(latencias, quantidade);
+                Arrays.sort(copia);
+                return copia;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
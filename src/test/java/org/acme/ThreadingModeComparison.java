@@ -0,0 +1,199 @@
+package org.acme;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compara a API rodando os resources no pool de workers e em threads virtuais.
+ * <p>
+ * Sobe o jar empacotado duas vezes, com {@code quarkus.virtual-threads.enabled=false} e {@code true},
+ * carrega o acervo pelo {@code POST /livros/batch} e dispara o mesmo cenário em rajada nos dois modos:
+ * muitos clientes simultâneos fazendo buscas, leituras por id e cadastros. Ao fim imprime vazão,
+ * p50/p99 e erros de cada modo.
+ * <p>
+ * Executar com {@code ./mvnw -Pload verify}. Parâmetros (propriedades de sistema):
+ * {@code carga.clientes} (padrão 256), {@code carga.duracao} e {@code carga.aquecimento} em segundos
+ * (padrão 30 e 10) e {@code carga.livros} (padrão 5000).
+ */
+public class ThreadingModeComparison {
+
+    private static final int PORTA = 8089;
+    private static final String BASE = "http://localhost:" + PORTA;
+    private static final String[] TERMOS = {"livro", "machado", "rocco", "978", "colecao", "area", "tolkien", "dom"};
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 256);
+    private static final int DURACAO = Integer.getInteger("carga.duracao", 30);
+    private static final int AQUECIMENTO = Integer.getInteger("carga.aquecimento", 10);
+    private static final int LIVROS = Integer.getInteger("carga.livros", 5000);
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private static final AtomicLong ISBNS = new AtomicLong(9_790_000_000_000L);
+
+    public static void main(String[] args) throws Exception {
+        File jar = new File(args.length > 0 ? args[0] : "target/quarkus-app/quarkus-run.jar");
+        List<String> linhas = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String modo = virtual ? "threads virtuais" : "pool de workers";
+            Process app = iniciar(jar, virtual);
+            try {
+                aguardarPronto();
+                popular();
+                executar(Duration.ofSeconds(AQUECIMENTO));
+                Resultado resultado = executar(Duration.ofSeconds(DURACAO));
+                linhas.add(String.format("%-17s %10.1f %10.1f %10.1f %8d", modo, resultado.vazao(),
+                        resultado.percentil(0.50), resultado.percentil(0.99), resultado.erros));
+            } finally {
+                app.destroy();
+                app.waitFor();
+            }
+        }
+
+        System.out.printf("%n%d clientes, %ds de medição, %d livros%n", CLIENTES, DURACAO, LIVROS);
+        System.out.printf("%-17s %10s %10s %10s %8s%n", "modo", "req/s", "p50 (ms)", "p99 (ms)", "erros");
+        linhas.forEach(System.out::println);
+    }
+
+    private static Process iniciar(File jar, boolean virtual) throws IOException {
+        String modo = virtual ? "virtual" : "worker";
+        return new ProcessBuilder(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-Dquarkus.http.port=" + PORTA,
+                "-Dquarkus.virtual-threads.enabled=" + virtual,
+                "-Dquarkus.hibernate-orm.log.sql=false",
+                "-Djdk.tracePinnedThreads=short",
+                "-jar", jar.getPath())
+                .redirectErrorStream(true)
+                .redirectOutput(new File(jar.getParentFile().getParentFile(), "load-" + modo + ".log"))
+                .start();
+    }
+
+    private static void aguardarPronto() throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (System.nanoTime() < limite) {
+            try {
+                if (enviar(HttpRequest.newBuilder(URI.create(BASE + "/livros/1")).GET()) == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ainda subindo
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("A aplicação não respondeu em 60s");
+    }
+
+    private static void popular() throws IOException, InterruptedException {
+        StringBuilder corpo = new StringBuilder();
+        for (int i = 0; i < LIVROS; i++) {
+            corpo.append(novoLivro("Livro de carga " + i + " " + TERMOS[i % TERMOS.length])).append('\n');
+        }
+        int status = enviar(HttpRequest.newBuilder(URI.create(BASE + "/livros/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.toString())));
+        if (status != 200) {
+            throw new IllegalStateException("Carga inicial falhou com status " + status);
+        }
+    }
+
+    private static Resultado executar(Duration duracao) throws Exception {
+        long fim = System.nanoTime() + duracao.toNanos();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Resultado>> futuros = new ArrayList<>(CLIENTES);
+            for (int i = 0; i < CLIENTES; i++) {
+                futuros.add(clientes.submit(() -> cliente(fim)));
+            }
+            Resultado total = new Resultado(new long[0], 0, duracao);
+            for (Future<Resultado> futuro : futuros) {
+                total = total.somar(futuro.get());
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Um cliente em laço fechado: 80% buscas, 10% leituras por id e 10% cadastros.
+     */
+    private static Resultado cliente(long fim) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencias = new long[1024];
+        int quantidade = 0;
+        long erros = 0;
+        while (System.nanoTime() < fim) {
+            int sorteio = random.nextInt(100);
+            HttpRequest.Builder request;
+            if (sorteio < 80) {
+                request = HttpRequest.newBuilder(URI.create(BASE + "/livros/search?q=" + TERMOS[random.nextInt(TERMOS.length)]
+                        + "&sort=titulo&page=" + (1 + random.nextInt(5)) + "&size=20")).GET();
+            } else if (sorteio < 90) {
+                request = HttpRequest.newBuilder(URI.create(BASE + "/livros/" + (1 + random.nextInt(5)))).GET();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(BASE + "/livros"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(novoLivro("Livro novo " + random.nextInt(1_000_000))));
+            }
+
+            long inicio = System.nanoTime();
+            try {
+                int status = enviar(request);
+                if (status >= 400) {
+                    erros++;
+                }
+            } catch (IOException | InterruptedException e) {
+                erros++;
+            }
+            if (quantidade == latencias.length) {
+                latencias = Arrays.copyOf(latencias, quantidade * 2);
+            }
+            latencias[quantidade++] = System.nanoTime() - inicio;
+        }
+        return new Resultado(Arrays.copyOf(latencias, quantidade), erros, null);
+    }
+
+    private static String novoLivro(String titulo) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"titulo\":\"" + titulo + "\",\"isbn\":\"" + ISBNS.incrementAndGet() + "\",\"anoPublicacao\":" + (1900 + random.nextInt(120))
+                + ",\"editora\":{\"id\":" + (1 + random.nextInt(4)) + "},\"autores\":[{\"id\":" + (1 + random.nextInt(5)) + "}]}";
+    }
+
+    private static int enviar(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return HTTP.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private record Resultado(long[] latencias, long erros, Duration duracao) {
+
+        Resultado somar(Resultado outro) {
+            long[] todas = Arrays.copyOf(latencias, latencias.length + outro.latencias.length);
+            System.arraycopy(outro.latencias, 0, todas, latencias.length, outro.latencias.length);
+            return new Resultado(todas, erros + outro.erros, duracao != null ? duracao : outro.duracao);
+        }
+
+        double vazao() {
+            return latencias.length / (double) duracao.toSeconds();
+        }
+
+        double percentil(double p) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            long[] ordenadas = latencias.clone();
+            Arrays.sort(ordenadas);
+            return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1_000_000.0;
+        }
+    }
+}